@@ -0,0 +1,66 @@
+package com.example.orchestrator.benchmark;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatFactory;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.NoBenchmarksException;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Runs the JMH benchmarks and writes all their results to one JSON file, so runs can be compared over time.
+ * {@link StateStoreBenchmark} runs once per thread count, the other benchmarks once.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec@jmh
+ * Select benchmarks with -Djmh.include=regex, thread counts with -Djmh.threads=1,2,4
+ * and the output file with -Djmh.result=path (default target/jmh-result.json)
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        String include = System.getProperty("jmh.include", ".*");
+        int[] threadCounts = Arrays.stream(System.getProperty("jmh.threads", "1,2,4,8,16,32,64").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        Path resultFile = Paths.get(System.getProperty("jmh.result", "target/jmh-result.json"));
+
+        String contention = Pattern.quote(StateStoreBenchmark.class.getName());
+        List<RunResult> results = new ArrayList<>();
+        results.addAll(run(new OptionsBuilder().include(include).exclude(contention)));
+        if (Pattern.compile(include).matcher(StateStoreBenchmark.class.getName()).find()) {
+            for (int threads : threadCounts) {
+                results.addAll(run(new OptionsBuilder().include(contention).threads(threads)));
+            }
+        }
+
+        Path directory = resultFile.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        try (PrintStream out = new PrintStream(Files.newOutputStream(resultFile), true, StandardCharsets.UTF_8)) {
+            ResultFormatFactory.getInstance(ResultFormatType.JSON, out).writeOut(results);
+        }
+        System.out.printf("Wrote %d results to %s%n", results.size(), resultFile.toAbsolutePath());
+    }
+
+    private static List<RunResult> run(org.openjdk.jmh.runner.options.ChainedOptionsBuilder options) throws RunnerException {
+        try {
+            return new ArrayList<>(new Runner(options.build()).run());
+        } catch (NoBenchmarksException e) {
+            return List.of();
+        }
+    }
+}
\ No newline at end of file
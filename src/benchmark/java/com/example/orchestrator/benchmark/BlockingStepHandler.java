@@ -0,0 +1,36 @@
+package com.example.orchestrator.benchmark;
+
+import com.example.orchestrator.handler.StepHandler;
+import com.example.orchestrator.handler.StepRequest;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Step handler that blocks the calling thread for a fixed latency (benchmark.latencyMs, 100 ms by default)
+ * before completing every command, the way a blocking client would, so benchmarks see how many commands
+ * an executor can keep in flight when each holds its thread
+ */
+public class BlockingStepHandler implements StepHandler {
+
+    private final long latencyMs = Long.getLong("benchmark.latencyMs", 100);
+
+    @Override
+    public boolean supports(String command) {
+        return true;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> execute(StepRequest request) {
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+        return CompletableFuture.completedFuture(true);
+    }
+
+    public long getLatencyMs() {
+        return latencyMs;
+    }
+}
\ No newline at end of file
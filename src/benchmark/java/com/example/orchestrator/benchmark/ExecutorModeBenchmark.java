@@ -0,0 +1,133 @@
+package com.example.orchestrator.benchmark;
+
+import com.example.orchestrator.config.ExecutorConfig;
+import com.example.orchestrator.config.ExecutorConfig.ExecutorMode;
+import com.example.orchestrator.context.SagaContext;
+import com.example.orchestrator.executor.BulkheadRegistry;
+import com.example.orchestrator.executor.CircuitBreakerRegistry;
+import com.example.orchestrator.executor.RetryBudget;
+import com.example.orchestrator.executor.RetryScheduler;
+import com.example.orchestrator.executor.TaskExecutor;
+import com.example.orchestrator.handler.StepHandlerRegistry;
+import com.example.orchestrator.metrics.OrchestratorMetrics;
+import com.example.orchestrator.models.dto.StepDefinition;
+import com.example.orchestrator.models.dto.TaskDefinition;
+import com.example.orchestrator.plan.ExecutionPlan;
+import com.example.orchestrator.plan.StepPlan;
+import com.example.orchestrator.store.StateStore;
+import com.example.orchestrator.trace.ExecutionTrace;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares the fixed and virtual step executor modes on the same workload of blocking commands.
+ * Submits a burst of steps through TaskExecutor.executeStepAsync and reports peak in-flight
+ * steps, wall-clock time and step latency percentiles for each mode. Every command runs on a
+ * BlockingStepHandler, which holds its executor thread for the whole latency; the asynchronous
+ * handlers release the thread at once, so with them both modes would look alike.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:java -Dbenchmark.steps=2000 -Dbenchmark.latencyMs=100
+ */
+public class ExecutorModeBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int steps = Integer.getInteger("benchmark.steps", 2000);
+        int poolSize = Integer.getInteger("benchmark.poolSize", 10);
+
+        try (AnnotationConfigApplicationContext context =
+                     new AnnotationConfigApplicationContext(StateStore.class, RetryScheduler.class, RetryBudget.class,
+                             CircuitBreakerRegistry.class, BulkheadRegistry.class, StepHandlerRegistry.class,
+                             BlockingStepHandler.class, OrchestratorMetrics.class, ExecutionTrace.class, TaskExecutor.class)) {
+            TaskExecutor taskExecutor = context.getBean(TaskExecutor.class);
+
+            System.out.printf("Java %d, %d steps per run, %d ms blocking per step, pool size %d, "
+                            + "virtual threads supported: %s%n",
+                    Runtime.version().feature(), steps, context.getBean(BlockingStepHandler.class).getLatencyMs(),
+                    poolSize, ExecutorConfig.isVirtualThreadSupported());
+
+            for (ExecutorMode mode : ExecutorMode.values()) {
+                run(taskExecutor, mode, steps, poolSize);
+            }
+        }
+    }
+
+    private static void run(TaskExecutor taskExecutor, ExecutorMode mode, int steps, int poolSize) throws Exception {
+        ExecutorService executorService = ExecutorConfig.createExecutor(mode, poolSize);
+        InFlightTracker tracker = new InFlightTracker(executorService);
+        SagaContext sagaContext = SagaContext.create("executor-mode-benchmark");
+        ExecutionPlan plan = benchmarkPlan(steps);
+
+        long[] latenciesNanos = new long[steps];
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>(steps);
+        long started = System.nanoTime();
+
+        for (int i = 0; i < steps; i++) {
+            int index = i;
+            StepPlan step = plan.task(0).step(i);
+            long submitted = System.nanoTime();
+            futures.add(taskExecutor.executeStepAsync(sagaContext, step, tracker)
+                    .whenComplete((success, error) -> latenciesNanos[index] = System.nanoTime() - submitted));
+        }
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        long wallNanos = System.nanoTime() - started;
+
+        executorService.shutdown();
+        executorService.awaitTermination(10, TimeUnit.SECONDS);
+
+        Arrays.sort(latenciesNanos);
+        System.out.printf("%-8s peak in-flight=%5d  wall=%7d ms  p50=%7d ms  p99=%7d ms  max=%7d ms%n",
+                mode,
+                tracker.peak.get(),
+                TimeUnit.NANOSECONDS.toMillis(wallNanos),
+                TimeUnit.NANOSECONDS.toMillis(percentile(latenciesNanos, 0.50)),
+                TimeUnit.NANOSECONDS.toMillis(percentile(latenciesNanos, 0.99)),
+                TimeUnit.NANOSECONDS.toMillis(latenciesNanos[latenciesNanos.length - 1]));
+    }
+
+    private static ExecutionPlan benchmarkPlan(int steps) {
+        TaskDefinition task = new TaskDefinition("BenchmarkTask");
+        for (int i = 0; i < steps; i++) {
+            task.addStep(new StepDefinition("Step" + i, "POST /benchmark", "{}"));
+        }
+        return ExecutionPlan.compile(List.of(task));
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    /**
+     * Executor wrapper that tracks how many step attempts are running at the same time
+     */
+    private static class InFlightTracker implements Executor {
+        private final Executor delegate;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger peak = new AtomicInteger();
+
+        InFlightTracker(Executor delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            delegate.execute(() -> {
+                peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    command.run();
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        }
+    }
+}
\ No newline at end of file
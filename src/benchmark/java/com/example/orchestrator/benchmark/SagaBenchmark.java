@@ -0,0 +1,118 @@
+package com.example.orchestrator.benchmark;
+
+import com.example.orchestrator.AsyncTaskOrchestrator;
+import com.example.orchestrator.TaskOrchestrator;
+import com.example.orchestrator.config.ExecutorConfig;
+import com.example.orchestrator.context.SagaContext;
+import com.example.orchestrator.executor.BulkheadRegistry;
+import com.example.orchestrator.executor.CircuitBreakerRegistry;
+import com.example.orchestrator.executor.CompensationEngine;
+import com.example.orchestrator.executor.RetryBudget;
+import com.example.orchestrator.executor.RetryScheduler;
+import com.example.orchestrator.executor.TaskExecutor;
+import com.example.orchestrator.handler.StepHandlerRegistry;
+import com.example.orchestrator.loader.YamlLoader;
+import com.example.orchestrator.metrics.OrchestratorMetrics;
+import com.example.orchestrator.plan.ExecutionPlan;
+import com.example.orchestrator.store.StateStore;
+import com.example.orchestrator.trace.ExecutionTrace;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saga throughput of both orchestrators and the cost of compensating a whole saga, on workflow.yml
+ * with a zero-latency step handler. Each operation runs one saga and then clears its states,
+ * so the state store does not grow over an iteration.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class SagaBenchmark {
+    private static final String WORKFLOW = "workflow.yml";
+
+    private AnnotationConfigApplicationContext context;
+    private TaskOrchestrator taskOrchestrator;
+    private AsyncTaskOrchestrator asyncTaskOrchestrator;
+    private CompensationEngine compensationEngine;
+    private StateStore stateStore;
+    private ExecutionPlan plan;
+    private int[] allTasks;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(ExecutorConfig.class, StateStore.class, RetryScheduler.class,
+                RetryBudget.class, CircuitBreakerRegistry.class, BulkheadRegistry.class, StepHandlerRegistry.class,
+                ZeroLatencyStepHandler.class, OrchestratorMetrics.class, ExecutionTrace.class, TaskExecutor.class,
+                CompensationEngine.class, TaskOrchestrator.class, AsyncTaskOrchestrator.class, YamlLoader.class);
+        taskOrchestrator = context.getBean(TaskOrchestrator.class);
+        asyncTaskOrchestrator = context.getBean(AsyncTaskOrchestrator.class);
+        compensationEngine = context.getBean(CompensationEngine.class);
+        stateStore = context.getBean(StateStore.class);
+        plan = context.getBean(YamlLoader.class).loadPlan(WORKFLOW);
+
+        allTasks = new int[plan.taskCount()];
+        for (int position = 0; position < allTasks.length; position++) {
+            allTasks[position] = plan.executionOrder(position);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * One saga through the sequential orchestrator
+     */
+    @Benchmark
+    public boolean sequentialSaga() {
+        SagaContext saga = SagaContext.create(WORKFLOW);
+        try {
+            return taskOrchestrator.executeTasks(saga, plan);
+        } finally {
+            stateStore.clearExecution(saga.getExecutionId());
+        }
+    }
+
+    /**
+     * One saga through the async orchestrator, waiting for it to finish
+     */
+    @Benchmark
+    public boolean asyncSaga() {
+        SagaContext saga = SagaContext.create(WORKFLOW);
+        try {
+            return asyncTaskOrchestrator.executeTasksAsync(saga, plan);
+        } finally {
+            stateStore.clearExecution(saga.getExecutionId());
+        }
+    }
+
+    /**
+     * Compensation of every step of every task, as after a failure once all tasks have completed
+     */
+    @Benchmark
+    public boolean compensation() {
+        SagaContext saga = SagaContext.create(WORKFLOW);
+        try {
+            return compensationEngine.compensateTasks(saga, plan, allTasks, allTasks.length).join();
+        } finally {
+            stateStore.clearExecution(saga.getExecutionId());
+        }
+    }
+}
\ No newline at end of file
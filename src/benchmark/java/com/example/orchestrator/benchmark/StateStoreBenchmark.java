@@ -0,0 +1,73 @@
+package com.example.orchestrator.benchmark;
+
+import com.example.orchestrator.models.dto.TaskState;
+import com.example.orchestrator.store.StateStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contention on the in-memory state store: task state updates and reads, either all threads on one
+ * execution or each thread on its own. {@link BenchmarkRunner} runs it once per thread count.
+ * Updates keep tasks RUNNING, a transition the state store always allows, so every update is a
+ * successful compare-and-set rather than a rejection.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class StateStoreBenchmark {
+    private static final String SHARED_EXECUTION = "ex-shared";
+    private static final String[] TASKS = {"Task0", "Task1", "Task2", "Task3", "Task4", "Task5", "Task6", "Task7"};
+
+    /** Whether all threads update the same execution */
+    @Param({"true", "false"})
+    public boolean sharedExecution;
+
+    private StateStore stateStore;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        stateStore = new StateStore();
+        stateStore.registerExecution(SHARED_EXECUTION, "benchmark");
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadExecution {
+        private final String executionId = "ex-" + UUID.randomUUID();
+        private int next;
+
+        @Setup(Level.Trial)
+        public void register(StateStoreBenchmark benchmark) {
+            benchmark.stateStore.registerExecution(executionId, "benchmark");
+        }
+    }
+
+    @Benchmark
+    public boolean updateTaskState(ThreadExecution thread) {
+        return stateStore.updateTaskState(executionId(thread), TASKS[thread.next++ & 7], TaskState.RUNNING);
+    }
+
+    @Benchmark
+    public TaskState getTaskState(ThreadExecution thread) {
+        return stateStore.getTaskState(executionId(thread), TASKS[thread.next++ & 7]);
+    }
+
+    private String executionId(ThreadExecution thread) {
+        return sharedExecution ? SHARED_EXECUTION : thread.executionId;
+    }
+}
\ No newline at end of file
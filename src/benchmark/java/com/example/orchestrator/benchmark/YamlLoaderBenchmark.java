@@ -0,0 +1,61 @@
+package com.example.orchestrator.benchmark;
+
+import com.example.orchestrator.executor.BulkheadRegistry;
+import com.example.orchestrator.loader.YamlLoader;
+import com.example.orchestrator.plan.ExecutionPlan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of loading a workflow: reading, parsing and compiling it into a plan, and a load served from the cache
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class YamlLoaderBenchmark {
+
+    @Param({"workflow.yml", "failure-workflow.yml"})
+    public String yamlFile;
+
+    private AnnotationConfigApplicationContext context;
+    private YamlLoader yamlLoader;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(BulkheadRegistry.class, YamlLoader.class);
+        yamlLoader = context.getBean(YamlLoader.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ExecutionPlan parse() {
+        yamlLoader.invalidate(yamlFile);
+        return yamlLoader.loadPlan(yamlFile);
+    }
+
+    @Benchmark
+    public ExecutionPlan cached() {
+        return yamlLoader.loadPlan(yamlFile);
+    }
+}
\ No newline at end of file
@@ -1,24 +1,31 @@
 package com.example.orchestrator;
 
+import com.example.orchestrator.context.SagaContext;
+import com.example.orchestrator.executor.CompensationEngine;
 import com.example.orchestrator.executor.TaskExecutor;
-import com.example.orchestrator.models.dto.StepDefinition;
-import com.example.orchestrator.models.dto.TaskDefinition;
+import com.example.orchestrator.graph.DagExecution;
+import com.example.orchestrator.metrics.OrchestratorMetrics;
 import com.example.orchestrator.models.dto.TaskState;
+import com.example.orchestrator.plan.ExecutionPlan;
+import com.example.orchestrator.plan.StepPlan;
+import com.example.orchestrator.plan.TaskPlan;
 import com.example.orchestrator.store.StateStore;
+import com.example.orchestrator.trace.ExecutionTrace;
+import com.example.orchestrator.trace.TraceEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.Arrays;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
- * Async orchestrator for executing steps within tasks in parallel
+ * Async orchestrator for executing independent tasks, and steps within tasks, in parallel
  */
 @Component
 public class AsyncTaskOrchestrator {
@@ -30,142 +37,154 @@ public class AsyncTaskOrchestrator {
     @Autowired
     private StateStore stateStore;
     
-    private final ExecutorService executorService = Executors.newFixedThreadPool(10);
+    @Autowired
+    private CompensationEngine compensationEngine;
+    
+    @Autowired
+    private OrchestratorMetrics metrics;
+    
+    @Autowired
+    private ExecutionTrace trace;
+    
+    @Autowired
+    @Qualifier("stepExecutorService")
+    private ExecutorService executorService;
+    
+    @Value("${orchestrator.async.fail-fast:true}")
+    private boolean failFast;
 
     /**
-     * Execute a list of tasks with async step execution
+     * Execute the tasks of a plan with async step execution, blocking until the saga has finished.
+     * Tasks whose dependencies have completed run concurrently with each other.
      */
-    public boolean executeTasksAsync(List<TaskDefinition> tasks) {
-        logger.info("Starting async orchestration of {} tasks", tasks.size());
-        
-        List<TaskDefinition> completedTasks = new ArrayList<>();
-        
-        for (TaskDefinition task : tasks) {
-            stateStore.updateTaskState(task.getName(), TaskState.RUNNING);
-            
-            boolean taskSuccess = executeTaskAsync(task);
-            
-            if (taskSuccess) {
-                stateStore.updateTaskState(task.getName(), TaskState.COMPLETED);
-                completedTasks.add(task);
-                logger.info("Task '{}' completed successfully", task.getName());
-            } else {
-                stateStore.updateTaskState(task.getName(), TaskState.FAILED);
-                logger.error("Task '{}' failed, starting compensation", task.getName());
-                
-                // Perform compensation on completed tasks in reverse order
-                compensateCompletedTasks(completedTasks);
-                
-                return false;
-            }
-        }
-        
-        logger.info("All tasks completed successfully");
-        return true;
+    public boolean executeTasksAsync(SagaContext context, ExecutionPlan plan) {
+        return submitTasks(context, plan).join();
     }
 
     /**
-     * Execute a single task with parallel step execution
+     * Start the tasks of a plan without blocking the caller. The returned future completes with the
+     * saga result once all tasks have completed, or once compensation has finished after a failure.
      */
-    private boolean executeTaskAsync(TaskDefinition task) {
-        logger.info("Executing task async: {}", task.getName());
-        
-        // Create CompletableFuture for each step
-        List<CompletableFuture<StepResult>> stepFutures = new ArrayList<>();
-        
-        for (StepDefinition step : task.getSteps()) {
-            CompletableFuture<StepResult> stepFuture = CompletableFuture.supplyAsync(() -> {
-                logger.info("Starting async execution of step: {}", step.getName());
-                boolean success = taskExecutor.executeStep(step);
-                logger.info("Async step '{}' completed with result: {}", step.getName(), success);
-                return new StepResult(step, success);
-            }, executorService);
-            
-            stepFutures.add(stepFuture);
-        }
-        
-        // Wait for all steps to complete
-        CompletableFuture<Void> allSteps = CompletableFuture.allOf(
-            stepFutures.toArray(new CompletableFuture[0])
-        );
+    public CompletableFuture<Boolean> submitTasks(SagaContext context, ExecutionPlan plan) {
+        logger.debug("[{}] Starting async orchestration of {} tasks", context.getExecutionId(), plan.taskCount());
+        stateStore.registerExecution(context.getExecutionId(), context.getWorkflowName());
+        trace.saga(context, TraceEvent.Type.SAGA_STARTED);
+        return run(context.withDeadline(plan.deadlineMs()), plan, false);
+    }
+
+    /**
+     * Resume an interrupted execution from its recorded states: completed tasks and steps are
+     * not run again, everything else runs as in a fresh execution, including compensation on failure.
+     * The saga deadline starts over.
+     */
+    public CompletableFuture<Boolean> resumeTasks(SagaContext context, ExecutionPlan plan) {
+        logger.info("[{}] Resuming async orchestration of {} tasks", context.getExecutionId(), plan.taskCount());
+        trace.saga(context, TraceEvent.Type.SAGA_RESUMED);
+        return run(context.withDeadline(plan.deadlineMs()), plan, true);
+    }
+
+    private CompletableFuture<Boolean> run(SagaContext context, ExecutionPlan plan, boolean resume) {
+        String executionId = context.getExecutionId();
+        AtomicReferenceArray<DagExecution> stepRuns = new AtomicReferenceArray<>(plan.taskCount());
         
-        try {
-            allSteps.join();
-            
-            // Check if all steps succeeded
-            List<StepDefinition> completedSteps = new ArrayList<>();
-            boolean allSucceeded = true;
+        return new DagExecution(plan.taskGraph(), index -> {
+            TaskPlan task = plan.task(index);
+            DagExecution stepRun = newStepRun(context, task, resume);
+            stepRuns.set(index, stepRun);
+            if (resume && stateStore.isTaskCompleted(executionId, task.getName())) {
+                return CompletableFuture.completedFuture(true);
+            }
+            stateStore.updateTaskState(executionId, task.getName(), TaskState.RUNNING);
+            trace.task(context, task, TraceEvent.Type.TASK_STARTED);
             
-            for (CompletableFuture<StepResult> future : stepFutures) {
-                StepResult result = future.get();
-                if (result.isSuccess()) {
-                    completedSteps.add(result.getStep());
+            return executeTaskAsync(context, task, stepRun).thenApply(taskSuccess -> {
+                if (taskSuccess) {
+                    stateStore.updateTaskState(executionId, task.getName(), TaskState.COMPLETED);
+                    trace.task(context, task, TraceEvent.Type.TASK_COMPLETED);
+                    logger.debug("[{}] Task '{}' completed successfully", executionId, task.getName());
+                } else if (stepRun.isStopping() && !stepRun.isFailed()) {
+                    stateStore.updateTaskState(executionId, task.getName(), TaskState.CANCELLED);
+                    trace.task(context, task, TraceEvent.Type.TASK_CANCELLED);
+                    logger.warn("[{}] Task '{}' cancelled after a sibling task failed", executionId, task.getName());
                 } else {
-                    allSucceeded = false;
-                    logger.error("Step '{}' in task '{}' failed", result.getStep().getName(), task.getName());
+                    stateStore.updateTaskState(executionId, task.getName(), TaskState.FAILED);
+                    trace.task(context, task, TraceEvent.Type.TASK_FAILED);
+                    logger.error("[{}] Task '{}' failed, starting compensation", executionId, task.getName());
                 }
+                return taskSuccess;
+            });
+        }).failFast(failFast).cancelWith(index -> stepRuns.get(index).cancel()).start().thenCompose(outcome -> {
+            if (outcome.isSuccess()) {
+                stateStore.updateExecutionStatus(executionId, TaskState.COMPLETED);
+                trace.saga(context, TraceEvent.Type.SAGA_COMPLETED);
+                metrics.sagaFinished(context, TaskState.COMPLETED);
+                logger.debug("[{}] All tasks completed successfully", executionId);
+                return CompletableFuture.completedFuture(true);
             }
             
-            if (!allSucceeded) {
-                // Compensate completed steps
-                compensateSteps(completedSteps);
-                return false;
-            }
-            
-            return true;
-            
-        } catch (Exception e) {
-            logger.error("Error during async task execution", e);
-            return false;
-        }
+            // Completion order is a topological order, so its reverse unwinds dependents first.
+            // Failed and cancelled tasks have already compensated their own completed steps.
+            stateStore.updateExecutionStatus(executionId, TaskState.COMPENSATING);
+            trace.saga(context, TraceEvent.Type.SAGA_COMPENSATING);
+            int[] completedTasks = outcome.getSucceeded();
+            return compensationEngine.compensateTasks(context, plan, completedTasks, completedTasks.length)
+                    .thenApply(compensated -> {
+                        TaskState status = compensated ? TaskState.COMPENSATED : TaskState.FAILED;
+                        stateStore.updateExecutionStatus(executionId, status);
+                        trace.saga(context, compensated ? TraceEvent.Type.SAGA_COMPENSATED : TraceEvent.Type.SAGA_FAILED);
+                        metrics.sagaFinished(context, status);
+                        return false;
+                    });
+        });
     }
 
     /**
-     * Compensate completed tasks in reverse order
+     * Create the dependency-driven run of the steps of a task
      */
-    private void compensateCompletedTasks(List<TaskDefinition> completedTasks) {
-        logger.info("Starting compensation for {} completed tasks", completedTasks.size());
-        
-        // Reverse the order for compensation
-        Collections.reverse(completedTasks);
-        
-        for (TaskDefinition task : completedTasks) {
-            stateStore.updateTaskState(task.getName(), TaskState.COMPENSATING);
-            
-            // Compensate all steps in the task (in reverse order)
-            List<StepDefinition> steps = new ArrayList<>(task.getSteps());
-            Collections.reverse(steps);
-            
-            boolean compensationSuccess = true;
-            for (StepDefinition step : steps) {
-                if (!taskExecutor.executeCompensation(step)) {
-                    compensationSuccess = false;
-                    logger.error("Compensation failed for step '{}' in task '{}'", step.getName(), task.getName());
-                }
-            }
-            
-            if (compensationSuccess) {
-                stateStore.updateTaskState(task.getName(), TaskState.COMPENSATED);
-                logger.info("Task '{}' compensated successfully", task.getName());
-            } else {
-                stateStore.updateTaskState(task.getName(), TaskState.FAILED);
-                logger.error("Compensation failed for task '{}'", task.getName());
+    private DagExecution newStepRun(SagaContext context, TaskPlan task, boolean resume) {
+        return new DagExecution(task.stepGraph(), index -> {
+            StepPlan step = task.step(index);
+            if (resume && stateStore.getStepState(context.getExecutionId(), step) == TaskState.COMPLETED) {
+                return CompletableFuture.completedFuture(true);
             }
-        }
+            // Return the executor's future itself so cancellation reaches the running attempt
+            return taskExecutor.executeStepAsync(context, step, executorService);
+        }).failFast(failFast);
     }
 
     /**
-     * Compensate steps in reverse order
+     * Execute a single task, starting each step as soon as the steps it depends on have completed
      */
-    private void compensateSteps(List<StepDefinition> completedSteps) {
-        logger.info("Starting compensation for {} completed steps", completedSteps.size());
-        
-        // Reverse the order for compensation
-        Collections.reverse(completedSteps);
+    private CompletableFuture<Boolean> executeTaskAsync(SagaContext context, TaskPlan task, DagExecution stepRun) {
+        logger.debug("Executing task async: {}", task.getName());
         
-        for (StepDefinition step : completedSteps) {
-            taskExecutor.executeCompensation(step);
-        }
+        return stepRun.start().thenCompose(outcome -> {
+            if (outcome.isSuccess()) {
+                return CompletableFuture.completedFuture(true);
+            }
+            
+            for (int index : outcome.getFailed()) {
+                logger.error("Step '{}' in task '{}' failed", task.step(index).getName(), task.getName());
+            }
+            if (outcome.getCancelled().length > 0) {
+                logger.warn("{} in-flight steps in task '{}' were cancelled", outcome.getCancelled().length, task.getName());
+            }
+            if (outcome.getNotStarted() > 0) {
+                logger.warn("{} of {} steps in task '{}' were not started", outcome.getNotStarted(),
+                        task.stepCount(), task.getName());
+            }
+            
+            // Compensate completed steps, keeping completion order. A cancelled step may have been
+            // interrupted mid-command, so it is compensated first.
+            int[] succeeded = outcome.getSucceeded();
+            int[] cancelled = outcome.getCancelled();
+            int[] completedSteps = Arrays.copyOf(succeeded, succeeded.length + cancelled.length);
+            System.arraycopy(cancelled, 0, completedSteps, succeeded.length, cancelled.length);
+            return compensationEngine.compensateSteps(context, task, completedSteps).thenApply(compensated -> false);
+        }).exceptionally(error -> {
+            logger.error("Error during async task execution", error);
+            return false;
+        });
     }
 
     /**
@@ -174,25 +193,4 @@ public class AsyncTaskOrchestrator {
     public void shutdown() {
         executorService.shutdown();
     }
-
-    /**
-     * Inner class to hold step execution results
-     */
-    private static class StepResult {
-        private final StepDefinition step;
-        private final boolean success;
-
-        public StepResult(StepDefinition step, boolean success) {
-            this.step = step;
-            this.success = success;
-        }
-
-        public StepDefinition getStep() {
-            return step;
-        }
-
-        public boolean isSuccess() {
-            return success;
-        }
-    }
 }
\ No newline at end of file
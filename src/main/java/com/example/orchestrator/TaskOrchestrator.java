@@ -1,19 +1,21 @@
 package com.example.orchestrator;
 
+import com.example.orchestrator.context.SagaContext;
+import com.example.orchestrator.executor.CompensationEngine;
 import com.example.orchestrator.executor.TaskExecutor;
-import com.example.orchestrator.models.dto.StepDefinition;
-import com.example.orchestrator.models.dto.TaskDefinition;
+import com.example.orchestrator.metrics.OrchestratorMetrics;
 import com.example.orchestrator.models.dto.TaskState;
+import com.example.orchestrator.plan.ExecutionPlan;
+import com.example.orchestrator.plan.StepPlan;
+import com.example.orchestrator.plan.TaskPlan;
 import com.example.orchestrator.store.StateStore;
+import com.example.orchestrator.trace.ExecutionTrace;
+import com.example.orchestrator.trace.TraceEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-
 /**
  * Main orchestrator for executing tasks sequentially with compensation
  */
@@ -26,57 +28,80 @@ public class TaskOrchestrator {
     
     @Autowired
     private StateStore stateStore;
+    
+    @Autowired
+    private CompensationEngine compensationEngine;
+    
+    @Autowired
+    private OrchestratorMetrics metrics;
+    
+    @Autowired
+    private ExecutionTrace trace;
 
     /**
-     * Execute a list of tasks sequentially
+     * Execute the tasks of a plan sequentially, in dependency order
      */
-    public boolean executeTasks(List<TaskDefinition> tasks) {
-        logger.info("Starting orchestration of {} tasks", tasks.size());
+    public boolean executeTasks(SagaContext sagaContext, ExecutionPlan plan) {
+        SagaContext context = sagaContext.withDeadline(plan.deadlineMs());
+        String executionId = context.getExecutionId();
+        logger.debug("[{}] Starting orchestration of {} tasks", executionId, plan.taskCount());
+        stateStore.registerExecution(executionId, context.getWorkflowName());
+        trace.saga(context, TraceEvent.Type.SAGA_STARTED);
         
-        List<TaskDefinition> completedTasks = new ArrayList<>();
+        int[] completedTasks = new int[plan.taskCount()];
         
-        for (TaskDefinition task : tasks) {
-            stateStore.updateTaskState(task.getName(), TaskState.RUNNING);
+        for (int position = 0; position < plan.taskCount(); position++) {
+            TaskPlan task = plan.task(plan.executionOrder(position));
+            stateStore.updateTaskState(executionId, task.getName(), TaskState.RUNNING);
+            trace.task(context, task, TraceEvent.Type.TASK_STARTED);
             
-            boolean taskSuccess = executeTask(task);
+            boolean taskSuccess = executeTask(context, task);
             
             if (taskSuccess) {
-                stateStore.updateTaskState(task.getName(), TaskState.COMPLETED);
-                completedTasks.add(task);
-                logger.info("Task '{}' completed successfully", task.getName());
+                stateStore.updateTaskState(executionId, task.getName(), TaskState.COMPLETED);
+                trace.task(context, task, TraceEvent.Type.TASK_COMPLETED);
+                completedTasks[position] = task.getIndex();
+                logger.debug("[{}] Task '{}' completed successfully", executionId, task.getName());
             } else {
-                stateStore.updateTaskState(task.getName(), TaskState.FAILED);
-                logger.error("Task '{}' failed, starting compensation", task.getName());
+                stateStore.updateTaskState(executionId, task.getName(), TaskState.FAILED);
+                trace.task(context, task, TraceEvent.Type.TASK_FAILED);
+                logger.error("[{}] Task '{}' failed, starting compensation", executionId, task.getName());
                 
-                // Perform compensation on completed tasks in reverse order
-                compensateCompletedTasks(completedTasks);
+                // Perform compensation on completed tasks in reverse dependency order
+                stateStore.updateExecutionStatus(executionId, TaskState.COMPENSATING);
+                trace.saga(context, TraceEvent.Type.SAGA_COMPENSATING);
+                boolean compensated = compensationEngine.compensateTasks(context, plan, completedTasks, position).join();
+                TaskState status = compensated ? TaskState.COMPENSATED : TaskState.FAILED;
+                stateStore.updateExecutionStatus(executionId, status);
+                trace.saga(context, compensated ? TraceEvent.Type.SAGA_COMPENSATED : TraceEvent.Type.SAGA_FAILED);
+                metrics.sagaFinished(context, status);
                 
                 return false;
             }
         }
         
-        logger.info("All tasks completed successfully");
+        stateStore.updateExecutionStatus(executionId, TaskState.COMPLETED);
+        trace.saga(context, TraceEvent.Type.SAGA_COMPLETED);
+        metrics.sagaFinished(context, TaskState.COMPLETED);
+        logger.debug("[{}] All tasks completed successfully", executionId);
         return true;
     }
 
     /**
-     * Execute a single task (all its steps)
+     * Execute a single task (all its steps) in dependency order
      */
-    private boolean executeTask(TaskDefinition task) {
-        logger.info("Executing task: {}", task.getName());
-        
-        List<StepDefinition> completedSteps = new ArrayList<>();
+    private boolean executeTask(SagaContext context, TaskPlan task) {
+        logger.debug("Executing task: {}", task.getName());
         
-        for (StepDefinition step : task.getSteps()) {
-            boolean stepSuccess = taskExecutor.executeStep(step);
+        for (int position = 0; position < task.stepCount(); position++) {
+            StepPlan step = task.step(task.executionOrder(position));
+            boolean stepSuccess = taskExecutor.executeStep(context, step);
             
-            if (stepSuccess) {
-                completedSteps.add(step);
-            } else {
+            if (!stepSuccess) {
                 logger.error("Step '{}' in task '{}' failed", step.getName(), task.getName());
                 
-                // Compensate completed steps in reverse order
-                compensateSteps(completedSteps);
+                // Steps before this one in execution order have completed; compensate them in reverse dependency order
+                compensationEngine.compensateExecutedSteps(context, task, position).join();
                 
                 return false;
             }
@@ -84,52 +109,4 @@ public class TaskOrchestrator {
         
         return true;
     }
-
-    /**
-     * Compensate completed tasks in reverse order
-     */
-    private void compensateCompletedTasks(List<TaskDefinition> completedTasks) {
-        logger.info("Starting compensation for {} completed tasks", completedTasks.size());
-        
-        // Reverse the order for compensation
-        Collections.reverse(completedTasks);
-        
-        for (TaskDefinition task : completedTasks) {
-            stateStore.updateTaskState(task.getName(), TaskState.COMPENSATING);
-            
-            // Compensate all steps in the task (in reverse order)
-            List<StepDefinition> steps = new ArrayList<>(task.getSteps());
-            Collections.reverse(steps);
-            
-            boolean compensationSuccess = true;
-            for (StepDefinition step : steps) {
-                if (!taskExecutor.executeCompensation(step)) {
-                    compensationSuccess = false;
-                    logger.error("Compensation failed for step '{}' in task '{}'", step.getName(), task.getName());
-                }
-            }
-            
-            if (compensationSuccess) {
-                stateStore.updateTaskState(task.getName(), TaskState.COMPENSATED);
-                logger.info("Task '{}' compensated successfully", task.getName());
-            } else {
-                stateStore.updateTaskState(task.getName(), TaskState.FAILED);
-                logger.error("Compensation failed for task '{}'", task.getName());
-            }
-        }
-    }
-
-    /**
-     * Compensate steps in reverse order
-     */
-    private void compensateSteps(List<StepDefinition> completedSteps) {
-        logger.info("Starting compensation for {} completed steps", completedSteps.size());
-        
-        // Reverse the order for compensation
-        Collections.reverse(completedSteps);
-        
-        for (StepDefinition step : completedSteps) {
-            taskExecutor.executeCompensation(step);
-        }
-    }
 }
\ No newline at end of file
@@ -2,8 +2,13 @@ package com.example.orchestrator.api;
 
 import com.example.orchestrator.AsyncTaskOrchestrator;
 import com.example.orchestrator.TaskOrchestrator;
+import com.example.orchestrator.context.SagaContext;
 import com.example.orchestrator.loader.YamlLoader;
-import com.example.orchestrator.models.dto.TaskDefinition;
+import com.example.orchestrator.models.dto.SagaExecution;
+import com.example.orchestrator.models.dto.TaskState;
+import com.example.orchestrator.services.ExecutionService;
+import com.example.orchestrator.services.IdempotencyService;
+import com.example.orchestrator.plan.ExecutionPlan;
 import com.example.orchestrator.store.StateStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,9 +17,10 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * REST API controller for task orchestration
@@ -24,6 +30,10 @@ import java.util.Map;
 public class OrchestrationController {
     private static final Logger logger = LoggerFactory.getLogger(OrchestrationController.class);
     
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    
+    private static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    
     @Autowired
     private TaskOrchestrator taskOrchestrator;
     
@@ -35,38 +45,50 @@ public class OrchestrationController {
     
     @Autowired
     private StateStore stateStore;
+    
+    @Autowired
+    private ExecutionService executionService;
+    
+    @Autowired
+    private IdempotencyService idempotencyService;
 
     /**
      * Synchronous orchestration endpoint
      */
     @PostMapping("/orchestrate")
     public ResponseEntity<Map<String, Object>> orchestrate(
-            @RequestParam(defaultValue = "workflow.yml") String yamlFile) {
+            @RequestParam(defaultValue = "workflow.yml") String yamlFile,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         
         logger.info("Received orchestration request for file: {}", yamlFile);
         
         Map<String, Object> response = new HashMap<>();
         
+        SagaContext context = SagaContext.create(yamlFile);
+        Optional<String> existingExecution = idempotencyService.claim(idempotencyKey, context.getExecutionId());
+        if (existingExecution.isPresent()) {
+            return replayed(existingExecution.get(), yamlFile);
+        }
+        response.put("executionId", context.getExecutionId());
+        
         try {
-            // Clear previous states
-            stateStore.clearAllStates();
-            
             // Load tasks from YAML
-            List<TaskDefinition> tasks = yamlLoader.loadTasks(yamlFile);
+            ExecutionPlan plan = yamlLoader.loadPlan(yamlFile);
             
             // Execute tasks
-            boolean success = taskOrchestrator.executeTasks(tasks);
+            boolean success = taskOrchestrator.executeTasks(context, plan);
             
             response.put("success", success);
             response.put("message", success ? "All tasks completed successfully" : "Orchestration failed");
             response.put("yamlFile", yamlFile);
-            response.put("tasksCount", tasks.size());
-            response.put("taskStates", stateStore.getAllStates());
+            response.put("tasksCount", plan.taskCount());
+            response.put("taskStates", stateStore.getExecutionStates(context.getExecutionId()));
             
             return ResponseEntity.ok(response);
             
         } catch (Exception e) {
             logger.error("Orchestration failed", e);
+            releaseIfNotStarted(idempotencyKey, context.getExecutionId());
             response.put("success", false);
             response.put("message", "Orchestration failed: " + e.getMessage());
             response.put("yamlFile", yamlFile);
@@ -80,32 +102,38 @@ public class OrchestrationController {
      */
     @PostMapping("/orchestrate-async")
     public ResponseEntity<Map<String, Object>> orchestrateAsync(
-            @RequestParam(defaultValue = "workflow.yml") String yamlFile) {
+            @RequestParam(defaultValue = "workflow.yml") String yamlFile,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         
         logger.info("Received async orchestration request for file: {}", yamlFile);
         
         Map<String, Object> response = new HashMap<>();
         
+        SagaContext context = SagaContext.create(yamlFile);
+        Optional<String> existingExecution = idempotencyService.claim(idempotencyKey, context.getExecutionId());
+        if (existingExecution.isPresent()) {
+            return replayed(existingExecution.get(), yamlFile);
+        }
+        response.put("executionId", context.getExecutionId());
+        
         try {
-            // Clear previous states
-            stateStore.clearAllStates();
-            
             // Load tasks from YAML
-            List<TaskDefinition> tasks = yamlLoader.loadTasks(yamlFile);
+            ExecutionPlan plan = yamlLoader.loadPlan(yamlFile);
             
             // Execute tasks asynchronously
-            boolean success = asyncTaskOrchestrator.executeTasksAsync(tasks);
+            boolean success = asyncTaskOrchestrator.executeTasksAsync(context, plan);
             
             response.put("success", success);
             response.put("message", success ? "All tasks completed successfully (async)" : "Async orchestration failed");
             response.put("yamlFile", yamlFile);
-            response.put("tasksCount", tasks.size());
-            response.put("taskStates", stateStore.getAllStates());
+            response.put("tasksCount", plan.taskCount());
+            response.put("taskStates", stateStore.getExecutionStates(context.getExecutionId()));
             
             return ResponseEntity.ok(response);
             
         } catch (Exception e) {
             logger.error("Async orchestration failed", e);
+            releaseIfNotStarted(idempotencyKey, context.getExecutionId());
             response.put("success", false);
             response.put("message", "Async orchestration failed: " + e.getMessage());
             response.put("yamlFile", yamlFile);
@@ -114,6 +142,67 @@ public class OrchestrationController {
         }
     }
 
+    /**
+     * Submit a saga for background execution; returns 202 with the execution ID right away
+     */
+    @PostMapping("/executions")
+    public ResponseEntity<Map<String, Object>> submitExecution(
+            @RequestParam(defaultValue = "workflow.yml") String yamlFile,
+            @RequestParam(required = false) String callbackUrl,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        
+        logger.info("Received execution submission for file: {}", yamlFile);
+        
+        Map<String, Object> response = new HashMap<>();
+        
+        SagaContext context = SagaContext.create(yamlFile);
+        Optional<String> existingExecution = idempotencyService.claim(idempotencyKey, context.getExecutionId());
+        if (existingExecution.isPresent()) {
+            return replayed(existingExecution.get(), yamlFile);
+        }
+        
+        try {
+            SagaExecution execution = executionService.submit(context, callbackUrl);
+            
+            response.put("executionId", execution.getExecutionId());
+            response.put("status", execution.getStatus());
+            response.put("yamlFile", yamlFile);
+            response.put("statusUrl", "/api/executions/" + execution.getExecutionId());
+            
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/executions/" + execution.getExecutionId()))
+                    .body(response);
+            
+        } catch (IllegalArgumentException e) {
+            logger.warn("Execution submission rejected: {}", e.getMessage());
+            releaseIfNotStarted(idempotencyKey, context.getExecutionId());
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            response.put("yamlFile", yamlFile);
+            
+            return ResponseEntity.badRequest().body(response);
+            
+        } catch (Exception e) {
+            logger.error("Execution submission failed", e);
+            releaseIfNotStarted(idempotencyKey, context.getExecutionId());
+            response.put("success", false);
+            response.put("message", "Execution submission failed: " + e.getMessage());
+            response.put("yamlFile", yamlFile);
+            
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * Get the status of a submitted execution
+     */
+    @GetMapping("/executions/{executionId}")
+    public ResponseEntity<Map<String, Object>> getExecution(@PathVariable String executionId) {
+        return executionService.findExecution(executionId)
+                .map(execution -> ResponseEntity.ok(executionService.describe(execution)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     /**
      * Get current task states
      */
@@ -124,6 +213,32 @@ public class OrchestrationController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Get task and step states of a single execution
+     */
+    @GetMapping("/states/{executionId}")
+    public ResponseEntity<Map<String, Object>> getExecutionStates(@PathVariable String executionId) {
+        if (!stateStore.hasExecution(executionId)) {
+            return ResponseEntity.notFound().build();
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("executionId", executionId);
+        response.put("taskStates", stateStore.getExecutionStates(executionId));
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Clear task and step states of a single execution
+     */
+    @DeleteMapping("/states/{executionId}")
+    public ResponseEntity<Map<String, Object>> clearExecutionStates(@PathVariable String executionId) {
+        stateStore.clearExecution(executionId);
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Execution states cleared");
+        response.put("executionId", executionId);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Clear all task states
      */
@@ -135,6 +250,57 @@ public class OrchestrationController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Respond to a duplicate request with the execution that already holds its idempotency key:
+     * 200 with the result if it has finished, 202 with where to poll if it is still in flight,
+     * and 410 if the store no longer knows it, since it was cleared after the key was claimed
+     */
+    private ResponseEntity<Map<String, Object>> replayed(String executionId, String yamlFile) {
+        if (!stateStore.hasExecution(executionId)) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("executionId", executionId);
+            response.put("duplicate", true);
+            response.put("yamlFile", yamlFile);
+            response.put("message", "Duplicate request, the existing execution is no longer known");
+            return ResponseEntity.status(HttpStatus.GONE).header(IDEMPOTENT_REPLAYED_HEADER, "true").body(response);
+        }
+        TaskState status = stateStore.getExecutionStatus(executionId);
+        boolean finished = status == TaskState.COMPLETED || status == TaskState.COMPENSATED || status == TaskState.FAILED;
+        String workflowName = stateStore.getWorkflowName(executionId);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("executionId", executionId);
+        response.put("status", status);
+        response.put("duplicate", true);
+        response.put("yamlFile", workflowName != null ? workflowName : yamlFile);
+        response.put("taskStates", stateStore.getExecutionStates(executionId));
+        
+        if (finished) {
+            response.put("success", status == TaskState.COMPLETED);
+            response.put("message", "Duplicate request, returning the result of the existing execution");
+            return ResponseEntity.ok().header(IDEMPOTENT_REPLAYED_HEADER, "true").body(response);
+        }
+        
+        String statusUrl = executionService.findExecution(executionId).isPresent()
+                ? "/api/executions/" + executionId
+                : "/api/states/" + executionId;
+        response.put("message", "Duplicate request, the existing execution is still in flight");
+        response.put("statusUrl", statusUrl);
+        return ResponseEntity.accepted()
+                .header(IDEMPOTENT_REPLAYED_HEADER, "true")
+                .location(URI.create(statusUrl))
+                .body(response);
+    }
+
+    /**
+     * Free the idempotency key of a request that failed before its saga was registered, so it can be retried
+     */
+    private void releaseIfNotStarted(String idempotencyKey, String executionId) {
+        if (stateStore.getWorkflowName(executionId) == null) {
+            idempotencyService.release(idempotencyKey, executionId);
+        }
+    }
+
     /**
      * Health check endpoint
      */
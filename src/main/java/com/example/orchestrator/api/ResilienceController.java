@@ -0,0 +1,61 @@
+package com.example.orchestrator.api;
+
+import com.example.orchestrator.executor.BulkheadRegistry;
+import com.example.orchestrator.executor.CircuitBreakerRegistry;
+import com.example.orchestrator.executor.RetryBudget;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * REST API controller exposing the state of circuit breakers and retry budgets per command target,
+ * and of bulkheads
+ */
+@RestController
+@RequestMapping("/api/resilience")
+public class ResilienceController {
+    
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakers;
+    
+    @Autowired
+    private RetryBudget retryBudget;
+    
+    @Autowired
+    private BulkheadRegistry bulkheads;
+
+    /**
+     * Get state, failure rate and rejection counts of every circuit breaker
+     */
+    @GetMapping("/circuit-breakers")
+    public ResponseEntity<Map<String, Object>> getCircuitBreakers() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("circuitBreakers", circuitBreakers.snapshot());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get limits, active attempts, queue depth and rejection counts of every bulkhead
+     */
+    @GetMapping("/bulkheads")
+    public ResponseEntity<Map<String, Object>> getBulkheads() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("bulkheads", bulkheads.snapshot());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get the retries currently available to every command target
+     */
+    @GetMapping("/retry-budgets")
+    public ResponseEntity<Map<String, Object>> getRetryBudgets() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("retryBudgets", retryBudget.snapshot());
+        return ResponseEntity.ok(response);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.example.orchestrator.api;
+
+import com.example.orchestrator.trace.ExecutionTrace;
+import com.example.orchestrator.trace.TraceEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST API controller dumping the recent execution events of the in-memory execution trace
+ */
+@RestController
+@RequestMapping("/api/trace")
+public class TraceController {
+    
+    @Autowired
+    private ExecutionTrace trace;
+
+    /**
+     * Get capacity and recorded and dropped event counts of the trace buffer
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getTrace() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("trace", trace.snapshot());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get the events of one execution still in the trace buffer, oldest first, with their offset
+     * from the first of them
+     */
+    @GetMapping("/{executionId}")
+    public ResponseEntity<Map<String, Object>> getExecutionTrace(@PathVariable String executionId) {
+        List<TraceEvent> events = trace.eventsOf(executionId);
+        if (events.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        long firstNanoTime = events.get(0).getNanoTime();
+        List<Map<String, Object>> described = new ArrayList<>(events.size());
+        for (TraceEvent event : events) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("sequence", event.getSequence());
+            entry.put("type", event.getType());
+            entry.put("name", event.getName());
+            entry.put("taskIndex", event.getTaskIndex());
+            entry.put("stepIndex", event.getStepIndex());
+            if (event.getAttempt() >= 0) {
+                entry.put("attempt", event.getAttempt());
+            }
+            entry.put("timestamp", event.getTimestamp().toString());
+            entry.put("offsetMicros", (event.getNanoTime() - firstNanoTime) / 1_000);
+            described.add(entry);
+        }
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("executionId", executionId);
+        response.put("eventCount", described.size());
+        response.put("events", described);
+        return ResponseEntity.ok(response);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.example.orchestrator.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Configuration of the executor that runs async step attempts
+ */
+@Configuration
+public class ExecutorConfig {
+    private static final Logger logger = LoggerFactory.getLogger(ExecutorConfig.class);
+
+    /**
+     * Supported step executor modes
+     */
+    public enum ExecutorMode {
+        FIXED,
+        VIRTUAL
+    }
+
+    @Value("${orchestrator.executor.mode:fixed}")
+    private String mode;
+
+    @Value("${orchestrator.executor.pool-size:10}")
+    private int poolSize;
+
+    /**
+     * Executor used by the async orchestrator for step attempts
+     */
+    @Bean(name = "stepExecutorService", destroyMethod = "shutdown")
+    public ExecutorService stepExecutorService() {
+        return createExecutor(ExecutorMode.valueOf(mode.trim().toUpperCase(Locale.ROOT)), poolSize);
+    }
+
+    /**
+     * Create a step executor for the given mode.
+     * VIRTUAL needs a JDK with virtual threads and falls back to a fixed pool otherwise.
+     */
+    public static ExecutorService createExecutor(ExecutorMode mode, int poolSize) {
+        if (mode == ExecutorMode.VIRTUAL) {
+            ExecutorService virtualExecutor = newVirtualThreadPerTaskExecutor();
+            if (virtualExecutor != null) {
+                logger.info("Using virtual-thread-per-step executor");
+                return virtualExecutor;
+            }
+            logger.warn("Virtual threads are not available on Java {}, falling back to a fixed pool of {} threads",
+                    Runtime.version().feature(), poolSize);
+        }
+
+        logger.info("Using fixed step executor with {} threads", poolSize);
+        return Executors.newFixedThreadPool(poolSize);
+    }
+
+    /**
+     * Check if the running JDK supports virtual threads
+     */
+    public static boolean isVirtualThreadSupported() {
+        return findVirtualExecutorFactory() != null;
+    }
+
+    /**
+     * Resolved reflectively so the project still compiles for Java 17
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        Method factory = findVirtualExecutorFactory();
+        if (factory == null) {
+            return null;
+        }
+        try {
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            logger.warn("Failed to create virtual-thread executor", e);
+            return null;
+        }
+    }
+
+    private static Method findVirtualExecutorFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.example.orchestrator.config;
+
+import com.example.orchestrator.store.MongoStateJournal;
+import com.example.orchestrator.store.SegmentedStateJournal;
+import com.example.orchestrator.store.StateJournal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.nio.file.Paths;
+
+/**
+ * Configuration of the durable journal behind the state store
+ */
+@Configuration
+public class StateStoreConfig {
+
+    @Value("${orchestrator.state.journal.directory:data/state-journal}")
+    private String directory;
+
+    @Value("${orchestrator.state.journal.segment-size-mb:64}")
+    private long segmentSizeMb;
+
+    @Value("${orchestrator.state.journal.compaction-threshold:4}")
+    private int compactionThreshold;
+
+    @Value("${orchestrator.state.journal.mongo.flush-interval-ms:50}")
+    private long mongoFlushIntervalMs;
+
+    @Value("${orchestrator.state.journal.mongo.batch-size:1000}")
+    private int mongoBatchSize;
+
+    @Value("${orchestrator.idempotency.ttl-seconds:3600}")
+    private long idempotencyTtlSeconds;
+
+    /**
+     * Segment-file journal; without a journal the state store is memory-only
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnExpression("${orchestrator.state.journal.enabled:false} and '${orchestrator.state.journal.backend:file}' == 'file'")
+    public StateJournal segmentedStateJournal() {
+        return SegmentedStateJournal.open(Paths.get(directory), segmentSizeMb * 1024 * 1024, compactionThreshold,
+                idempotencyTtlSeconds * 1000);
+    }
+
+    /**
+     * Journal written behind to the saga_executions collection
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnExpression("${orchestrator.state.journal.enabled:false} and '${orchestrator.state.journal.backend:file}' == 'mongo'")
+    public StateJournal mongoStateJournal(MongoTemplate mongoTemplate) {
+        return new MongoStateJournal(mongoTemplate, mongoFlushIntervalMs, mongoBatchSize, idempotencyTtlSeconds * 1000);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.orchestrator.context;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Identity of a single saga execution, threaded through orchestrators, executor and state store,
+ * together with the deadline the saga has to finish by, if any
+ */
+public class SagaContext {
+    private final String executionId;
+    private final String workflowName;
+    private final Instant startedAt;
+    private final long startedAtNanos;
+    private final long deadlineMs;
+    private final long deadlineNanos;
+
+    public SagaContext(String executionId, String workflowName) {
+        this(executionId, workflowName, Instant.now(), System.nanoTime(), 0, 0);
+    }
+
+    private SagaContext(String executionId, String workflowName, Instant startedAt, long startedAtNanos,
+                        long deadlineMs, long deadlineNanos) {
+        this.executionId = executionId;
+        this.workflowName = workflowName;
+        this.startedAt = startedAt;
+        this.startedAtNanos = startedAtNanos;
+        this.deadlineMs = deadlineMs;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Create a context with a freshly generated execution ID
+     */
+    public static SagaContext create(String workflowName) {
+        return new SagaContext(generateExecutionId(), workflowName);
+    }
+
+    public String getExecutionId() {
+        return executionId;
+    }
+
+    public String getWorkflowName() {
+        return workflowName;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * Time elapsed since the context was created, from the monotonic clock
+     */
+    public long elapsedNanos() {
+        return System.nanoTime() - startedAtNanos;
+    }
+
+    /**
+     * Copy of this context for a saga that has to finish within the given time from now; 0 for no deadline
+     */
+    public SagaContext withDeadline(long deadlineMs) {
+        if (deadlineMs <= 0) {
+            return this;
+        }
+        long deadlineNanos = System.nanoTime() + deadlineMs * 1_000_000L;
+        return new SagaContext(executionId, workflowName, startedAt, startedAtNanos, deadlineMs, deadlineNanos);
+    }
+
+    public boolean hasDeadline() {
+        return deadlineMs > 0;
+    }
+
+    /**
+     * Time left until the deadline, negative once it has passed, or Long.MAX_VALUE without a deadline
+     */
+    public long remainingMs() {
+        if (deadlineMs <= 0) {
+            return Long.MAX_VALUE;
+        }
+        return Math.floorDiv(deadlineNanos - System.nanoTime(), 1_000_000L);
+    }
+
+    /**
+     * Generate unique execution ID
+     */
+    private static String generateExecutionId() {
+        return "ex-" + UUID.randomUUID().toString().replace("-", "");
+    }
+
+    @Override
+    public String toString() {
+        return "SagaContext{" +
+                "executionId='" + executionId + '\'' +
+                ", workflowName='" + workflowName + '\'' +
+                ", startedAt=" + startedAt +
+                ", deadlineMs=" + deadlineMs +
+                '}';
+    }
+}
\ No newline at end of file
@@ -0,0 +1,167 @@
+package com.example.orchestrator.executor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Lock-free concurrency limit with a bounded wait queue. A caller that gets no permit queues a waiter,
+ * which is granted the permit of the next caller to release one; waiters beyond the queue limit are rejected.
+ * Waiters are never parked by the bulkhead itself, so async callers hold no thread while queued.
+ */
+public final class Bulkhead {
+
+    public enum Admission {
+        /** The caller holds a permit and must release it */
+        ACQUIRED,
+        /** The waiter will be granted a permit by a releasing thread */
+        QUEUED,
+        /** The wait queue is full */
+        REJECTED
+    }
+
+    private final String name;
+    private volatile int maxConcurrent;
+    private volatile int maxQueue;
+
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Queue<BooleanSupplier> waiters = new ConcurrentLinkedQueue<>();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder waited = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    Bulkhead(String name, int maxConcurrent, int maxQueue) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueue = maxQueue;
+    }
+
+    /**
+     * Change the limits; permits already held are kept
+     */
+    void resize(int maxConcurrent, int maxQueue) {
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueue = maxQueue;
+        // A larger limit may free permits for queued waiters
+        while (!waiters.isEmpty() && tryAcquirePermit()) {
+            release();
+        }
+    }
+
+    /**
+     * Acquire a permit, or queue the waiter for one. When a permit is handed to the waiter it returns
+     * true if it took it, or false if it no longer wants it (e.g. it was cancelled), in which case the
+     * permit passes on. The waiter may be granted on the calling thread before this method returns.
+     */
+    public Admission acquire(BooleanSupplier waiter) {
+        if (tryAcquirePermit()) {
+            admitted.increment();
+            return Admission.ACQUIRED;
+        }
+        if (queued.incrementAndGet() > maxQueue) {
+            queued.decrementAndGet();
+            rejected.increment();
+            return Admission.REJECTED;
+        }
+        waiters.add(waiter);
+        waited.increment();
+        // A permit may have been released between the failed attempt and queueing
+        if (tryAcquirePermit()) {
+            release();
+        }
+        return Admission.QUEUED;
+    }
+
+    /**
+     * Release a permit, handing it to the oldest waiter that takes it
+     */
+    public void release() {
+        while (true) {
+            BooleanSupplier next = waiters.poll();
+            if (next != null) {
+                queued.decrementAndGet();
+                if (next.getAsBoolean()) {
+                    admitted.increment();
+                    return;
+                }
+                continue;
+            }
+            inUse.decrementAndGet();
+            // A waiter may have queued after the poll, while the permit still looked taken
+            if (waiters.isEmpty() || !tryAcquirePermit()) {
+                return;
+            }
+        }
+    }
+
+    private boolean tryAcquirePermit() {
+        int current;
+        do {
+            current = inUse.get();
+            if (current >= maxConcurrent) {
+                return false;
+            }
+        } while (!inUse.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getMaxQueue() {
+        return maxQueue;
+    }
+
+    /**
+     * Permits currently held
+     */
+    public int getActiveCount() {
+        return inUse.get();
+    }
+
+    /**
+     * Waiters currently queued
+     */
+    public int getQueueDepth() {
+        return queued.get();
+    }
+
+    /**
+     * Attempts that had to wait for a permit
+     */
+    public long getWaitedCount() {
+        return waited.sum();
+    }
+
+    /**
+     * Attempts rejected because the wait queue was full
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Limits and counters of the bulkhead, for metrics
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("maxConcurrent", maxConcurrent);
+        snapshot.put("maxQueue", maxQueue);
+        snapshot.put("active", getActiveCount());
+        snapshot.put("queueDepth", getQueueDepth());
+        snapshot.put("admitted", admitted.sum());
+        snapshot.put("waited", getWaitedCount());
+        snapshot.put("rejected", getRejectedCount());
+        return snapshot;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,128 @@
+package com.example.orchestrator.executor;
+
+import com.example.orchestrator.models.dto.BulkheadDefinition;
+import com.example.orchestrator.plan.StepPlan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Process-wide bulkheads by name, declared by the workflows that use them when their plans are compiled.
+ * Steps of every workflow that name the same bulkhead share its permits, so workflows sharing a bulkhead
+ * must declare the same limits; only a reloaded workflow that is the sole user of a bulkhead may resize it.
+ */
+@Component
+public class BulkheadRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(BulkheadRegistry.class);
+
+    private final ConcurrentMap<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    /** Workflows declaring each bulkhead, guarded by this */
+    private final Map<String, Set<String>> declaredBy = new HashMap<>();
+
+    private final List<Consumer<Bulkhead>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Declare the bulkheads of a workflow whose plan is being compiled. Fails without changing any bulkhead
+     * if another workflow declares one of them with different limits.
+     */
+    public synchronized void declare(String workflow, List<BulkheadDefinition> definitions) {
+        for (BulkheadDefinition definition : definitions) {
+            Bulkhead current = bulkheads.get(definition.getName());
+            Set<String> workflows = declaredBy.getOrDefault(definition.getName(), Set.of());
+            if (current != null && !hasLimits(current, definition) && !Set.of(workflow).containsAll(workflows)) {
+                throw new IllegalArgumentException("Bulkhead '" + definition.getName() + "' is declared by "
+                        + workflows + " with " + current.getMaxConcurrent() + " concurrent and "
+                        + current.getMaxQueue() + " queued attempts, not " + definition.getMaxConcurrent()
+                        + " and " + definition.getMaxQueue());
+            }
+        }
+        declaredBy.values().forEach(workflows -> workflows.remove(workflow));
+        for (BulkheadDefinition definition : definitions) {
+            declaredBy.computeIfAbsent(definition.getName(), name -> new TreeSet<>()).add(workflow);
+            configure(definition);
+        }
+    }
+
+    /**
+     * Bulkhead of a step, or null if the step is not restricted. A bulkhead is only created here, never
+     * resized, for a plan compiled without declaring its bulkheads.
+     */
+    public Bulkhead forStep(StepPlan step) {
+        BulkheadDefinition definition = step.getBulkhead();
+        if (definition == null) {
+            return null;
+        }
+        Bulkhead bulkhead = bulkheads.get(definition.getName());
+        return bulkhead != null ? bulkhead : create(definition);
+    }
+
+    /**
+     * Call the listener with every bulkhead created so far and every bulkhead created from now on.
+     * A bulkhead may be passed more than once.
+     */
+    public void addListener(Consumer<Bulkhead> listener) {
+        listeners.add(listener);
+        bulkheads.values().forEach(listener);
+    }
+
+    /**
+     * Resize a declared bulkhead to the limits of its definition, creating it if needed
+     */
+    private void configure(BulkheadDefinition definition) {
+        Bulkhead bulkhead = bulkheads.get(definition.getName());
+        if (bulkhead == null) {
+            create(definition);
+        } else if (!hasLimits(bulkhead, definition)) {
+            logger.info("Resized bulkhead '{}' to {} concurrent and {} queued attempts",
+                    definition.getName(), definition.getMaxConcurrent(), definition.getMaxQueue());
+            bulkhead.resize(definition.getMaxConcurrent(), definition.getMaxQueue());
+        }
+    }
+
+    private Bulkhead create(BulkheadDefinition definition) {
+        boolean[] created = new boolean[1];
+        Bulkhead bulkhead = bulkheads.computeIfAbsent(definition.getName(), name -> {
+            logger.info("Created bulkhead '{}' with {} concurrent and {} queued attempts",
+                    name, definition.getMaxConcurrent(), definition.getMaxQueue());
+            created[0] = true;
+            return new Bulkhead(name, definition.getMaxConcurrent(), definition.getMaxQueue());
+        });
+        if (created[0]) {
+            listeners.forEach(listener -> listener.accept(bulkhead));
+        }
+        return bulkhead;
+    }
+
+    private static boolean hasLimits(Bulkhead bulkhead, BulkheadDefinition definition) {
+        return bulkhead.getMaxConcurrent() == definition.getMaxConcurrent()
+                && bulkhead.getMaxQueue() == definition.getMaxQueue();
+    }
+
+    /**
+     * All bulkheads created so far
+     */
+    public Iterable<Bulkhead> getBulkheads() {
+        return bulkheads.values();
+    }
+
+    /**
+     * Limits, queue depth and rejection counts of every bulkhead, by name
+     */
+    public Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> snapshot = new TreeMap<>();
+        bulkheads.forEach((name, bulkhead) -> snapshot.put(name, bulkhead.snapshot()));
+        return snapshot;
+    }
+}
\ No newline at end of file
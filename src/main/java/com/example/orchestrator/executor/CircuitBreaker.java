@@ -0,0 +1,226 @@
+package com.example.orchestrator.executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free circuit breaker for one command target. While CLOSED, the outcomes of the last
+ * window-size attempts are kept in a ring; once at least minimum-calls are recorded and the failure
+ * rate reaches the threshold the breaker opens and rejects attempts. After the open duration it lets
+ * a limited number of probe attempts through (HALF_OPEN): if they all succeed it closes with a fresh
+ * window, and the first failing probe opens it again. All state changes are compare-and-set.
+ */
+public final class CircuitBreaker {
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final String target;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenProbes;
+
+    private final AtomicInteger state = new AtomicInteger(State.CLOSED.ordinal());
+    private final AtomicLong openedAtNanos = new AtomicLong();
+    private final AtomicInteger probesStarted = new AtomicInteger();
+    private final AtomicInteger probesSucceeded = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder opened = new LongAdder();
+    private volatile Window window;
+
+    CircuitBreaker(String target, int windowSize, int minimumCalls, int failureRateThreshold,
+                   long openDurationMs, int halfOpenProbes) {
+        this.target = target;
+        this.windowSize = Math.max(1, windowSize);
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, this.windowSize));
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = openDurationMs * 1_000_000L;
+        this.halfOpenProbes = Math.max(1, halfOpenProbes);
+        this.window = new Window(this.windowSize);
+    }
+
+    /**
+     * Acquire permission for an attempt. Every permitted attempt must be followed by
+     * {@link #onSuccess()}, {@link #onFailure()} or {@link #onIgnored()}.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = state.get();
+            if (current == State.CLOSED.ordinal()) {
+                return true;
+            }
+            if (current == State.OPEN.ordinal()) {
+                if (System.nanoTime() - openedAtNanos.get() < openDurationNanos) {
+                    rejected.increment();
+                    return false;
+                }
+                if (state.compareAndSet(current, State.HALF_OPEN.ordinal())) {
+                    probesStarted.set(0);
+                    probesSucceeded.set(0);
+                    logger.info("Circuit breaker for '{}' half-open, probing with {} attempts", target, halfOpenProbes);
+                }
+                continue;
+            }
+            // HALF_OPEN: let the probes through, reject everything else until they report back
+            int probe;
+            do {
+                probe = probesStarted.get();
+                if (probe >= halfOpenProbes) {
+                    rejected.increment();
+                    return false;
+                }
+            } while (!probesStarted.compareAndSet(probe, probe + 1));
+            if (state.get() != State.HALF_OPEN.ordinal()) {
+                // Raced with the probes settling; return the slot and decide again
+                probesStarted.decrementAndGet();
+                continue;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Check without side effects whether an attempt would currently be considered
+     */
+    public boolean allowsCalls() {
+        int current = state.get();
+        return current != State.OPEN.ordinal() || System.nanoTime() - openedAtNanos.get() >= openDurationNanos;
+    }
+
+    public void onSuccess() {
+        if (state.get() == State.HALF_OPEN.ordinal()) {
+            if (probesSucceeded.incrementAndGet() >= halfOpenProbes
+                    && state.compareAndSet(State.HALF_OPEN.ordinal(), State.CLOSED.ordinal())) {
+                window = new Window(windowSize);
+                logger.info("Circuit breaker for '{}' closed", target);
+            }
+            return;
+        }
+        window.record(false);
+    }
+
+    public void onFailure() {
+        int current = state.get();
+        if (current == State.HALF_OPEN.ordinal()) {
+            open(current, "a probe attempt failed");
+            return;
+        }
+        if (current != State.CLOSED.ordinal()) {
+            return;
+        }
+        Window recorded = window;
+        recorded.record(true);
+        int calls = recorded.calls();
+        if (calls >= minimumCalls && recorded.failures() * 100L >= (long) failureRateThreshold * calls) {
+            open(current, recorded.failures() + " of the last " + calls + " attempts failed");
+        }
+    }
+
+    /**
+     * Release a permitted attempt whose outcome says nothing about the target, e.g. a cancelled one
+     */
+    public void onIgnored() {
+        if (state.get() == State.HALF_OPEN.ordinal()) {
+            probesStarted.decrementAndGet();
+        }
+    }
+
+    private void open(int from, String reason) {
+        openedAtNanos.set(System.nanoTime());
+        if (state.compareAndSet(from, State.OPEN.ordinal())) {
+            opened.increment();
+            logger.warn("Circuit breaker for '{}' opened: {}", target, reason);
+        }
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public State getState() {
+        return State.values()[state.get()];
+    }
+
+    /**
+     * Failure rate of the current window in percent, or -1 before minimum-calls attempts are recorded
+     */
+    public float getFailureRate() {
+        Window current = window;
+        int calls = current.calls();
+        return calls < minimumCalls ? -1f : current.failures() * 100f / calls;
+    }
+
+    /**
+     * Attempts rejected without being run
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Times the breaker has opened
+     */
+    public long getOpenedCount() {
+        return opened.sum();
+    }
+
+    /**
+     * State and counters of the breaker, for metrics
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("state", getState());
+        snapshot.put("failureRate", getFailureRate());
+        snapshot.put("bufferedCalls", window.calls());
+        snapshot.put("rejected", getRejectedCount());
+        snapshot.put("opened", getOpenedCount());
+        return snapshot;
+    }
+
+    /**
+     * Ring of the most recent outcomes with a running failure count
+     */
+    private static final class Window {
+        private static final int EMPTY = 0;
+        private static final int SUCCESS = 1;
+        private static final int FAILURE = 2;
+
+        private final AtomicIntegerArray outcomes;
+        private final AtomicLong sequence = new AtomicLong();
+        private final AtomicInteger failures = new AtomicInteger();
+
+        Window(int size) {
+            this.outcomes = new AtomicIntegerArray(size);
+        }
+
+        void record(boolean failure) {
+            int slot = (int) (sequence.getAndIncrement() % outcomes.length());
+            int previous = outcomes.getAndSet(slot, failure ? FAILURE : SUCCESS);
+            int delta = (failure ? 1 : 0) - (previous == FAILURE ? 1 : 0);
+            if (delta != 0) {
+                failures.addAndGet(delta);
+            }
+        }
+
+        int calls() {
+            return (int) Math.min(sequence.get(), outcomes.length());
+        }
+
+        int failures() {
+            return failures.get();
+        }
+    }
+}
\ No newline at end of file
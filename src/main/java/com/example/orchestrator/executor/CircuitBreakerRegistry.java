@@ -0,0 +1,86 @@
+package com.example.orchestrator.executor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Circuit breakers by command target, created on first use with the configured settings
+ */
+@Component
+public class CircuitBreakerRegistry {
+
+    @Value("${orchestrator.circuit-breaker.enabled:true}")
+    private boolean enabled;
+
+    @Value("${orchestrator.circuit-breaker.window-size:20}")
+    private int windowSize;
+
+    @Value("${orchestrator.circuit-breaker.minimum-calls:10}")
+    private int minimumCalls;
+
+    @Value("${orchestrator.circuit-breaker.failure-rate-threshold:50}")
+    private int failureRateThreshold;
+
+    @Value("${orchestrator.circuit-breaker.open-duration-ms:5000}")
+    private long openDurationMs;
+
+    @Value("${orchestrator.circuit-breaker.half-open-probes:3}")
+    private int halfOpenProbes;
+
+    private final ConcurrentMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    private final List<Consumer<CircuitBreaker>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Breaker of a command target, or null if circuit breaking is disabled
+     */
+    public CircuitBreaker forTarget(String target) {
+        if (!enabled) {
+            return null;
+        }
+        CircuitBreaker breaker = breakers.get(target);
+        if (breaker == null) {
+            CircuitBreaker created = new CircuitBreaker(target, windowSize, minimumCalls,
+                    failureRateThreshold, openDurationMs, halfOpenProbes);
+            breaker = breakers.putIfAbsent(target, created);
+            if (breaker == null) {
+                breaker = created;
+                listeners.forEach(listener -> listener.accept(created));
+            }
+        }
+        return breaker;
+    }
+
+    /**
+     * Call the listener with every breaker created so far and every breaker created from now on.
+     * A breaker created concurrently may be passed twice.
+     */
+    public void addListener(Consumer<CircuitBreaker> listener) {
+        listeners.add(listener);
+        breakers.values().forEach(listener);
+    }
+
+    /**
+     * All breakers created so far
+     */
+    public Iterable<CircuitBreaker> getBreakers() {
+        return breakers.values();
+    }
+
+    /**
+     * State and counters of every breaker, by target
+     */
+    public Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> snapshot = new TreeMap<>();
+        breakers.forEach((target, breaker) -> snapshot.put(target, breaker.snapshot()));
+        return snapshot;
+    }
+}
\ No newline at end of file
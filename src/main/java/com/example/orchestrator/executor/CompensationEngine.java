@@ -0,0 +1,293 @@
+package com.example.orchestrator.executor;
+
+import com.example.orchestrator.context.SagaContext;
+import com.example.orchestrator.graph.DagExecution;
+import com.example.orchestrator.graph.DependencyGraph;
+import com.example.orchestrator.models.dto.TaskState;
+import com.example.orchestrator.plan.ExecutionPlan;
+import com.example.orchestrator.plan.StepPlan;
+import com.example.orchestrator.plan.TaskPlan;
+import com.example.orchestrator.store.StateStore;
+import com.example.orchestrator.trace.ExecutionTrace;
+import com.example.orchestrator.trace.TraceEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Runs compensations as a reverse dependency graph with bounded parallelism.
+ * A step is compensated only after every completed step (and task) that depended on it has been compensated;
+ * independent compensations run concurrently. A step marked compensateSequentially acts as a barrier:
+ * it waits for all compensations of work completed after it, and blocks all compensations of work completed before it.
+ */
+@Component
+public class CompensationEngine {
+    private static final Logger logger = LoggerFactory.getLogger(CompensationEngine.class);
+
+    @Autowired
+    private TaskExecutor taskExecutor;
+
+    @Autowired
+    private StateStore stateStore;
+
+    @Autowired
+    private ExecutionTrace trace;
+
+    @Autowired
+    @Qualifier("stepExecutorService")
+    private ExecutorService executorService;
+
+    @Value("${orchestrator.compensation.max-parallelism:4}")
+    private int maxParallelism;
+
+    /**
+     * Compensate the completed steps of a single task, given as step indexes in completion order
+     */
+    public CompletableFuture<Boolean> compensateSteps(SagaContext context, TaskPlan task, int[] completedSteps) {
+        logger.debug("Starting compensation for {} completed steps", completedSteps.length);
+
+        Items items = new Items(completedSteps.length, 1);
+        for (int i = completedSteps.length - 1; i >= 0; i--) {
+            items.add(task, completedSteps[i]);
+        }
+        return run(context, null, items, null);
+    }
+
+    /**
+     * Compensate the steps of a task that completed before the step at the given position of its execution order
+     */
+    public CompletableFuture<Boolean> compensateExecutedSteps(SagaContext context, TaskPlan task, int executedSteps) {
+        logger.debug("Starting compensation for {} completed steps", executedSteps);
+
+        // The plan's compensation order ends with the reverse of the executed prefix
+        Items items = new Items(executedSteps, 1);
+        for (int position = task.stepCount() - executedSteps; position < task.stepCount(); position++) {
+            items.add(task, task.compensationOrder(position));
+        }
+        return run(context, null, items, null);
+    }
+
+    /**
+     * Compensate all steps of the completed tasks, given as task indexes in completion order.
+     * The task graph of the plan decides which tasks must be unwound first.
+     */
+    public CompletableFuture<Boolean> compensateTasks(SagaContext context, ExecutionPlan plan,
+                                                      int[] completedTasks, int completedCount) {
+        logger.debug("Starting compensation for {} completed tasks", completedCount);
+
+        int stepCount = 0;
+        for (int i = 0; i < completedCount; i++) {
+            TaskPlan task = plan.task(completedTasks[i]);
+            stateStore.updateTaskState(context.getExecutionId(), task.getName(), TaskState.COMPENSATING);
+            stepCount += task.stepCount();
+        }
+
+        Items items = new Items(stepCount, plan.taskCount());
+        for (int i = completedCount - 1; i >= 0; i--) {
+            TaskPlan task = plan.task(completedTasks[i]);
+            for (int position = 0; position < task.stepCount(); position++) {
+                items.add(task, task.compensationOrder(position));
+            }
+        }
+
+        return run(context, plan, items, Arrays.copyOf(completedTasks, completedCount));
+    }
+
+    /**
+     * Compensate an interrupted execution from its recorded states, after a restart. Every step that completed,
+     * was running, was cancelled or was being compensated is compensated; completion order is unknown, so steps are unwound
+     * in reverse plan order within the dependency constraints. Completed and compensating tasks are settled.
+     */
+    public CompletableFuture<Boolean> compensateRecorded(SagaContext context, ExecutionPlan plan) {
+        String executionId = context.getExecutionId();
+
+        int stepCount = 0;
+        int[] tasksToSettle = new int[plan.taskCount()];
+        int settleCount = 0;
+        for (int index = 0; index < plan.taskCount(); index++) {
+            TaskPlan task = plan.task(index);
+            TaskState taskState = stateStore.getTaskState(executionId, task.getName());
+            if (taskState == TaskState.COMPLETED || taskState == TaskState.COMPENSATING) {
+                stateStore.updateTaskState(executionId, task.getName(), TaskState.COMPENSATING);
+                tasksToSettle[settleCount++] = index;
+            }
+            stepCount += task.stepCount();
+        }
+
+        Items items = new Items(stepCount, plan.taskCount());
+        for (int position = plan.taskCount() - 1; position >= 0; position--) {
+            TaskPlan task = plan.task(plan.executionOrder(position));
+            for (int s = 0; s < task.stepCount(); s++) {
+                StepPlan step = task.step(task.compensationOrder(s));
+                if (isCompensationOwed(stateStore.getStepState(executionId, step))) {
+                    items.add(task, step.getIndex());
+                }
+            }
+        }
+
+        logger.info("[{}] Starting recovery compensation for {} steps", executionId, items.size);
+        return run(context, plan, items, Arrays.copyOf(tasksToSettle, settleCount));
+    }
+
+    private static boolean isCompensationOwed(TaskState stepState) {
+        return stepState == TaskState.COMPLETED || stepState == TaskState.RUNNING
+                || stepState == TaskState.CANCELLED || stepState == TaskState.COMPENSATING;
+    }
+
+    private CompletableFuture<Boolean> run(SagaContext context, ExecutionPlan plan, Items items, int[] tasksToSettle) {
+        int size = items.size;
+        BitSet[] waitsFor = new BitSet[size];
+        String[] names = new String[size];
+        for (int i = 0; i < size; i++) {
+            waitsFor[i] = new BitSet(size);
+            names[i] = items.steps[i].getKey();
+        }
+
+        for (int i = 0; i < size; i++) {
+            TaskPlan task = items.tasks[i];
+            StepPlan step = items.steps[i];
+
+            // A step waits for the compensation of its completed dependents in the same task
+            for (int dependent : task.stepGraph().dependents(step.getIndex())) {
+                int item = items.indexOf(task, dependent);
+                if (item >= 0) {
+                    waitsFor[i].set(item);
+                }
+            }
+
+            // A task is unwound only after every completed task that depended on it
+            if (plan != null) {
+                for (int dependentTask : plan.taskGraph().dependents(task.getIndex())) {
+                    TaskPlan dependent = plan.task(dependentTask);
+                    for (int s = 0; s < dependent.stepCount(); s++) {
+                        int item = items.indexOf(dependent, s);
+                        if (item >= 0) {
+                            waitsFor[i].set(item);
+                        }
+                    }
+                }
+            }
+
+            // Sequential steps are barriers in completion order; items are laid out in reverse completion order
+            if (step.isCompensateSequentially()) {
+                for (int other = 0; other < size; other++) {
+                    if (other < i) {
+                        waitsFor[i].set(other);
+                    } else if (other > i) {
+                        waitsFor[other].set(i);
+                    }
+                }
+            }
+        }
+
+        int[][] dependencies = new int[size][];
+        for (int i = 0; i < size; i++) {
+            dependencies[i] = waitsFor[i].stream().toArray();
+        }
+        DependencyGraph graph = DependencyGraph.of(names, dependencies);
+
+        AtomicIntegerArray remainingByTask = null;
+        AtomicIntegerArray failedByTask = null;
+        boolean[] toSettle = null;
+        if (tasksToSettle != null) {
+            remainingByTask = new AtomicIntegerArray(plan.taskCount());
+            failedByTask = new AtomicIntegerArray(plan.taskCount());
+            toSettle = new boolean[plan.taskCount()];
+            for (int i = 0; i < size; i++) {
+                remainingByTask.incrementAndGet(items.tasks[i].getIndex());
+            }
+            for (int taskIndex : tasksToSettle) {
+                toSettle[taskIndex] = true;
+                if (remainingByTask.get(taskIndex) == 0) {
+                    settleTask(context, plan.task(taskIndex), true);
+                }
+            }
+        }
+
+        AtomicBoolean allCompensated = new AtomicBoolean(true);
+        AtomicIntegerArray remaining = remainingByTask;
+        AtomicIntegerArray failed = failedByTask;
+        boolean[] settles = toSettle;
+
+        // Compensation failures do not stop the graph: every remaining compensation is still attempted
+        return new DagExecution(graph, index -> {
+            TaskPlan task = items.tasks[index];
+            StepPlan step = items.steps[index];
+            return taskExecutor.executeCompensationAsync(context, step, executorService).thenApply(success -> {
+                if (!success) {
+                    allCompensated.set(false);
+                    logger.error("Compensation failed for step '{}' in task '{}'", step.getName(), task.getName());
+                }
+                if (remaining != null && settles[task.getIndex()]) {
+                    if (!success) {
+                        failed.set(task.getIndex(), 1);
+                    }
+                    if (remaining.decrementAndGet(task.getIndex()) == 0) {
+                        settleTask(context, task, failed.get(task.getIndex()) == 0);
+                    }
+                }
+                return true;
+            });
+        }).maxConcurrency(maxParallelism).start().thenApply(outcome -> allCompensated.get());
+    }
+
+    private void settleTask(SagaContext context, TaskPlan task, boolean compensated) {
+        String executionId = context.getExecutionId();
+        if (compensated) {
+            stateStore.updateTaskState(executionId, task.getName(), TaskState.COMPENSATED);
+            trace.task(context, task, TraceEvent.Type.TASK_COMPENSATED);
+            logger.debug("[{}] Task '{}' compensated successfully", executionId, task.getName());
+        } else {
+            stateStore.updateTaskState(executionId, task.getName(), TaskState.FAILED);
+            trace.task(context, task, TraceEvent.Type.TASK_FAILED);
+            logger.error("[{}] Compensation failed for task '{}'", executionId, task.getName());
+        }
+    }
+
+    /**
+     * Steps to compensate, in reverse completion order, with a lookup from task and step index to item index
+     */
+    private static final class Items {
+        private final TaskPlan[] tasks;
+        private final StepPlan[] steps;
+        private final int[][] itemByStep;
+        private int size;
+
+        Items(int capacity, int taskCount) {
+            this.tasks = new TaskPlan[capacity];
+            this.steps = new StepPlan[capacity];
+            this.itemByStep = new int[taskCount][];
+        }
+
+        void add(TaskPlan task, int stepIndex) {
+            int slot = taskSlot(task);
+            if (itemByStep[slot] == null) {
+                itemByStep[slot] = new int[task.stepCount()];
+                Arrays.fill(itemByStep[slot], -1);
+            }
+            itemByStep[slot][stepIndex] = size;
+            tasks[size] = task;
+            steps[size] = task.step(stepIndex);
+            size++;
+        }
+
+        int indexOf(TaskPlan task, int stepIndex) {
+            int[] items = itemByStep[taskSlot(task)];
+            return items != null ? items[stepIndex] : -1;
+        }
+
+        private int taskSlot(TaskPlan task) {
+            return itemByStep.length == 1 ? 0 : task.getIndex();
+        }
+    }
+}
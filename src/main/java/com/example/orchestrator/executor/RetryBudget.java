@@ -0,0 +1,105 @@
+package com.example.orchestrator.executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide retry budget, one token bucket per command target. Every first attempt of a step
+ * deposits ratio tokens into the bucket of its target and every retry withdraws a whole token,
+ * so once retries to a target exceed ratio times its first attempts, and the burst the bucket
+ * holds is spent, further retries are refused until new first attempts refill it.
+ * Buckets start full and are updated with compare-and-set only.
+ */
+@Component
+public class RetryBudget {
+    private static final Logger logger = LoggerFactory.getLogger(RetryBudget.class);
+
+    /** Tokens are held in thousandths so fractional deposits need no floating point state */
+    private static final long TOKEN = 1000;
+
+    @Value("${orchestrator.retry.budget.enabled:true}")
+    private boolean enabled;
+
+    @Value("${orchestrator.retry.budget.ratio:0.2}")
+    private double ratio;
+
+    @Value("${orchestrator.retry.budget.burst:20}")
+    private int burst;
+
+    private final ConcurrentMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * Credit the budget of a target for a first attempt
+     */
+    public void recordAttempt(String target) {
+        if (!enabled) {
+            return;
+        }
+        AtomicLong bucket = bucket(target);
+        long deposit = (long) (ratio * TOKEN);
+        long capacity = capacity();
+        long current;
+        do {
+            current = bucket.get();
+            if (current >= capacity) {
+                return;
+            }
+        } while (!bucket.compareAndSet(current, Math.min(capacity, current + deposit)));
+    }
+
+    /**
+     * Take one retry from the budget of a target; false if the budget is spent
+     */
+    public boolean tryAcquireRetry(String target) {
+        if (!enabled) {
+            return true;
+        }
+        AtomicLong bucket = bucket(target);
+        long current;
+        do {
+            current = bucket.get();
+            if (current < TOKEN) {
+                logger.warn("Retry budget for target '{}' exhausted, retry refused", target);
+                return false;
+            }
+        } while (!bucket.compareAndSet(current, current - TOKEN));
+        return true;
+    }
+
+    /**
+     * Retries currently available to a target
+     */
+    public double availableRetries(String target) {
+        AtomicLong bucket = buckets.get(target);
+        return (bucket != null ? bucket.get() : capacity()) / (double) TOKEN;
+    }
+
+    /**
+     * Retries currently available per target that has been used so far
+     */
+    public Map<String, Double> snapshot() {
+        Map<String, Double> snapshot = new TreeMap<>();
+        buckets.forEach((target, bucket) -> snapshot.put(target, bucket.get() / (double) TOKEN));
+        return snapshot;
+    }
+
+    private AtomicLong bucket(String target) {
+        AtomicLong bucket = buckets.get(target);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(target, t -> new AtomicLong(capacity()));
+        }
+        return bucket;
+    }
+
+    private long capacity() {
+        return Math.max(1, burst) * TOKEN;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.example.orchestrator.executor;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timer-driven scheduler that re-enqueues retry attempts on a worker executor once their delay elapses,
+ * so no worker thread is held while a step waits for its next attempt
+ */
+@Component
+public class RetryScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(RetryScheduler.class);
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "retry-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Submit the task to the given executor after the delay has elapsed.
+     * The rejection handler is invoked if either the timer or the executor refuses the task.
+     */
+    public void schedule(Runnable task, long delayMs, Executor executor, Runnable onRejected) {
+        try {
+            timer.schedule(() -> {
+                try {
+                    executor.execute(task);
+                } catch (RejectedExecutionException e) {
+                    logger.error("Retry attempt rejected by worker executor", e);
+                    onRejected.run();
+                }
+            }, delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            logger.error("Retry attempt rejected by scheduler", e);
+            onRejected.run();
+        }
+    }
+
+    /**
+     * Clean up resources
+     */
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+}
\ No newline at end of file
@@ -1,48 +1,290 @@
 package com.example.orchestrator.executor;
 
-import com.example.orchestrator.models.dto.StepDefinition;
+import com.example.orchestrator.context.SagaContext;
+import com.example.orchestrator.handler.StepHandlerRegistry;
+import com.example.orchestrator.handler.StepRequest;
+import com.example.orchestrator.metrics.OrchestratorMetrics;
+import com.example.orchestrator.metrics.OrchestratorMetrics.AttemptOutcome;
+import com.example.orchestrator.models.dto.TaskState;
+import com.example.orchestrator.plan.StepPlan;
+import com.example.orchestrator.store.StateStore;
+import com.example.orchestrator.trace.ExecutionTrace;
+import com.example.orchestrator.trace.TraceEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 /**
- * Executor for individual steps with retry and compensation logic
+ * Executor for individual steps with retry and compensation logic.
+ * Commands are executed by the step handler their command routes to, and cancelled
+ * once they exceed the step's timeout or their share of the time left to the saga deadline.
+ * Steps, attempts, retries and compensations are recorded in the execution trace; the
+ * corresponding log lines are at DEBUG level, failures are still logged as warnings and errors.
  */
 @Component
 public class TaskExecutor {
     private static final Logger logger = LoggerFactory.getLogger(TaskExecutor.class);
 
+    @Autowired
+    private StateStore stateStore;
+
+    @Autowired
+    private RetryScheduler retryScheduler;
+
+    @Autowired
+    private RetryBudget retryBudget;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakers;
+
+    @Autowired
+    private BulkheadRegistry bulkheads;
+
+    @Autowired
+    private StepHandlerRegistry stepHandlers;
+
+    @Autowired
+    private OrchestratorMetrics metrics;
+
+    @Autowired
+    private ExecutionTrace trace;
+
+    /**
+     * Execute a step of a task with retry logic, recording its state in the execution
+     */
+    public boolean executeStep(SagaContext context, StepPlan step) {
+        String executionId = context.getExecutionId();
+        stateStore.updateStepState(executionId, step, TaskState.RUNNING);
+        trace.step(context, step, TraceEvent.Type.STEP_STARTED);
+
+        long startedAt = System.nanoTime();
+        boolean success = runStep(context, step);
+        metrics.stepFinished(step, success, System.nanoTime() - startedAt);
+
+        stateStore.updateStepState(executionId, step, success ? TaskState.COMPLETED : TaskState.FAILED);
+        trace.step(context, step, success ? TraceEvent.Type.STEP_COMPLETED : TraceEvent.Type.STEP_FAILED);
+        return success;
+    }
+
+    /**
+     * Execute compensation for a step of a task asynchronously, recording its state in the execution.
+     * The compensation command is started on the given executor, which is released as soon as the handler
+     * has started it, so asynchronous handlers hold no thread while the compensation runs.
+     */
+    public CompletableFuture<Boolean> executeCompensationAsync(SagaContext context, StepPlan step, Executor executor) {
+        String executionId = context.getExecutionId();
+        stateStore.updateStepState(executionId, step, TaskState.COMPENSATING);
+        trace.step(context, step, TraceEvent.Type.COMPENSATION_STARTED);
+
+        long startedAt = System.nanoTime();
+        CompletableFuture<Boolean> compensation;
+        try {
+            compensation = CompletableFuture.supplyAsync(() -> startCompensation(context, step), executor)
+                    .thenCompose(outcome -> outcome);
+        } catch (RejectedExecutionException e) {
+            logger.error("Compensation for step '{}' rejected by executor", step.getName(), e);
+            compensation = CompletableFuture.completedFuture(false);
+        }
+        return compensation.exceptionally(error -> {
+            logger.error("Compensation for step '{}' failed with exception", step.getName(), unwrap(error));
+            return false;
+        }).thenApply(success -> {
+            if (step.hasCompensation()) {
+                metrics.compensationFinished(step, success, System.nanoTime() - startedAt);
+            }
+            stateStore.updateStepState(executionId, step, success ? TaskState.COMPENSATED : TaskState.FAILED);
+            trace.step(context, step, success ? TraceEvent.Type.COMPENSATION_SUCCEEDED : TraceEvent.Type.COMPENSATION_FAILED);
+            return success;
+        });
+    }
+
+    /**
+     * Execute a step of a task asynchronously, recording its state in the execution.
+     * Attempts are started on the given executor, which is released as soon as the handler has started
+     * the command, so asynchronous handlers hold no thread while the command runs; retry delays follow the
+     * step's backoff strategy and are handed to the retry scheduler, so the worker thread is released between attempts.
+     * Each attempt is cancelled once it exceeds its timeout, and no attempt starts after the saga deadline.
+     * If the step runs in a bulkhead, each attempt first waits for a permit without holding a thread.
+     * Cancelling the returned future stops further retries and interrupts an attempt that is currently running.
+     */
+    public CompletableFuture<Boolean> executeStepAsync(SagaContext context, StepPlan step, Executor executor) {
+        stateStore.updateStepState(context.getExecutionId(), step, TaskState.RUNNING);
+        trace.step(context, step, TraceEvent.Type.STEP_STARTED);
+        logger.debug("Starting async execution of step: {}", step.getName());
+
+        StepRun run = new StepRun(context, step, executor, bulkheads.forStep(step));
+        dispatch(run, 0);
+        return run;
+    }
+
+    /**
+     * Hand an attempt to the executor, through the step's bulkhead if it has one.
+     * An attempt rejected by a full bulkhead fails the step without further retries.
+     */
+    private void dispatch(StepRun run, int attempt) {
+        Bulkhead bulkhead = run.bulkhead;
+        if (bulkhead == null) {
+            start(run, () -> runAttempt(run, attempt, null));
+            return;
+        }
+
+        // The permit is held until the attempt completes, not just while the worker starts it
+        Runnable task = () -> runAttempt(run, attempt, bulkhead);
+        switch (bulkhead.acquire(() -> !run.isDone() && start(run, task))) {
+            case ACQUIRED:
+                if (!start(run, task)) {
+                    bulkhead.release();
+                }
+                break;
+            case REJECTED:
+                logger.error("Step '{}' rejected, bulkhead '{}' is full", run.step.getName(), bulkhead.getName());
+                trace.attempt(run.context, run.step, TraceEvent.Type.ATTEMPT_REJECTED, attempt);
+                run.finish(false);
+                break;
+            default:
+                // Started by the thread that releases the next permit
+                break;
+        }
+    }
+
+    private boolean start(StepRun run, Runnable task) {
+        try {
+            run.executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            logger.error("Step '{}' rejected by executor", run.step.getName(), e);
+            run.finish(false);
+            return false;
+        }
+    }
+
+    /**
+     * Start one attempt of a step; once it completes, release the bulkhead permit held for it, if any,
+     * and either complete the run or schedule the next attempt
+     */
+    private void runAttempt(StepRun run, int attempt, Bulkhead heldPermit) {
+        StepPlan step = run.step;
+        if (!run.enter()) {
+            if (heldPermit != null) {
+                heldPermit.release();
+            }
+            return;
+        }
+
+        CompletableFuture<Boolean> outcome;
+        try {
+            if (attempt > 0) {
+                logger.debug("Retrying step '{}' - attempt {}/{}", step.getName(), attempt, step.getMaxRetries());
+                metrics.retryStarted(step);
+            } else {
+                retryBudget.recordAttempt(step.getTarget());
+            }
+            outcome = attemptStep(run.context, step, attempt);
+            run.attempt = outcome;
+            if (run.isCancelled()) {
+                // Cancelled before the attempt was visible to cancel()
+                outcome.cancel(true);
+            }
+        } finally {
+            run.exit();
+        }
+
+        outcome.whenComplete((success, error) -> {
+            if (heldPermit != null) {
+                heldPermit.release();
+            }
+            onAttemptCompleted(run, attempt, error == null && Boolean.TRUE.equals(success));
+        });
+    }
+
+    private void onAttemptCompleted(StepRun run, int attempt, boolean success) {
+        StepPlan step = run.step;
+        int maxRetries = step.getMaxRetries();
+        if (run.isDone()) {
+            return;
+        }
+
+        if (success) {
+            run.finish(true);
+            return;
+        }
+
+        if (attempt >= maxRetries) {
+            logger.error("Step '{}' failed after {} attempts", step.getName(), maxRetries + 1);
+            run.finish(false);
+            return;
+        }
+
+        run.retryDelayMs = step.retryDelayMs(attempt + 1, run.retryDelayMs);
+        if (!retryBeforeDeadline(run.context, step, attempt + 1, run.retryDelayMs)
+                || !retryPermitted(step, attempt + 1)) {
+            run.finish(false);
+            return;
+        }
+
+        // Dispatch from the timer thread; it only enqueues the attempt on the executor or the bulkhead
+        trace.attempt(run.context, step, TraceEvent.Type.RETRY_SCHEDULED, attempt + 1);
+        retryScheduler.schedule(
+                () -> dispatch(run, attempt + 1),
+                run.retryDelayMs,
+                Runnable::run,
+                () -> run.finish(false));
+    }
+
     /**
-     * Execute a step with retry logic
+     * Execute a step with retry logic, blocking the calling thread between attempts
+     * and while waiting for a bulkhead permit
      */
-    public boolean executeStep(StepDefinition step) {
-        logger.info("Starting execution of step: {}", step.getName());
+    private boolean runStep(SagaContext context, StepPlan step) {
+        logger.debug("Starting execution of step: {}", step.getName());
         
-        int maxRetries = step.getRetryPolicy().getMaxRetries();
+        Bulkhead bulkhead = bulkheads.forStep(step);
+        int maxRetries = step.getMaxRetries();
         int attempt = 0;
+        long retryDelayMs = 0;
+        retryBudget.recordAttempt(step.getTarget());
         
         while (attempt <= maxRetries) {
-            try {
-                if (attempt > 0) {
-                    logger.info("Retrying step '{}' - attempt {}/{}", step.getName(), attempt, maxRetries);
-                    Thread.sleep(step.getRetryPolicy().getRetryDelayMs());
+            if (attempt > 0) {
+                retryDelayMs = step.retryDelayMs(attempt, retryDelayMs);
+                if (!retryBeforeDeadline(context, step, attempt, retryDelayMs) || !retryPermitted(step, attempt)) {
+                    return false;
                 }
-                
-                boolean success = simulateCommandExecution(step.getCommand(), step.getInput());
-                
-                if (success) {
-                    logger.info("Step '{}' executed successfully", step.getName());
-                    return true;
-                } else {
-                    logger.warn("Step '{}' failed on attempt {}", step.getName(), attempt + 1);
+                logger.debug("Retrying step '{}' - attempt {}/{}", step.getName(), attempt, maxRetries);
+                trace.attempt(context, step, TraceEvent.Type.RETRY_SCHEDULED, attempt);
+                metrics.retryStarted(step);
+                try {
+                    Thread.sleep(retryDelayMs);
+                } catch (InterruptedException e) {
+                    logger.error("Step '{}' execution interrupted", step.getName(), e);
+                    Thread.currentThread().interrupt();
+                    return false;
                 }
-                
-            } catch (InterruptedException e) {
-                logger.error("Step '{}' execution interrupted", step.getName(), e);
-                Thread.currentThread().interrupt();
+            }
+            
+            if (!awaitPermit(context, step, bulkhead, attempt)) {
                 return false;
-            } catch (Exception e) {
-                logger.error("Step '{}' execution failed with exception on attempt {}", step.getName(), attempt + 1, e);
+            }
+            boolean success;
+            try {
+                success = await(attemptStep(context, step, attempt));
+            } finally {
+                if (bulkhead != null) {
+                    bulkhead.release();
+                }
+            }
+            if (success) {
+                return true;
             }
             
             attempt++;
@@ -53,56 +295,352 @@ public class TaskExecutor {
     }
 
     /**
-     * Execute compensation for a step
+     * Block until the bulkhead grants a permit; false if the bulkhead is full or the wait was interrupted
      */
-    public boolean executeCompensation(StepDefinition step) {
-        if (!step.hasCompensation()) {
-            logger.info("No compensation command defined for step: {}", step.getName());
+    private boolean awaitPermit(SagaContext context, StepPlan step, Bulkhead bulkhead, int attempt) {
+        if (bulkhead == null) {
+            return true;
+        }
+        CompletableFuture<Void> permit = new CompletableFuture<>();
+        switch (bulkhead.acquire(() -> permit.complete(null))) {
+            case ACQUIRED:
+                return true;
+            case REJECTED:
+                logger.error("Step '{}' rejected, bulkhead '{}' is full", step.getName(), bulkhead.getName());
+                trace.attempt(context, step, TraceEvent.Type.ATTEMPT_REJECTED, attempt);
+                return false;
+            default:
+                break;
+        }
+        try {
+            permit.get();
             return true;
+        } catch (InterruptedException e) {
+            logger.error("Step '{}' interrupted while waiting for bulkhead '{}'", step.getName(), bulkhead.getName());
+            Thread.currentThread().interrupt();
+            if (!permit.cancel(false)) {
+                // Granted concurrently; pass the permit on
+                bulkhead.release();
+            }
+            return false;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Check whether a retry starting after the given delay would still start before the saga deadline
+     */
+    private boolean retryBeforeDeadline(SagaContext context, StepPlan step, int attemptsMade, long delayMs) {
+        if (context.remainingMs() > delayMs) {
+            return true;
+        }
+        logger.error("Step '{}' failed after {} attempts, no time left for a retry before the saga deadline",
+                step.getName(), attemptsMade);
+        return false;
+    }
+
+    /**
+     * Time an attempt of a step may take: the step's timeout, capped by an even share of the time left
+     * until the saga deadline. The time left is split across this attempt, the step's remaining retries and
+     * the longest chain of steps still to run after it; time an attempt does not use passes on to later ones.
+     * Returns 0 for no limit, or a negative value once the deadline has passed.
+     */
+    private static long attemptTimeoutMs(SagaContext context, StepPlan step, int attempt) {
+        if (!context.hasDeadline()) {
+            return step.getTimeoutMs();
+        }
+        long remainingMs = context.remainingMs();
+        if (remainingMs <= 0) {
+            return -1;
+        }
+        long shares = 1L + step.getStepsAfter() + Math.max(0, step.getMaxRetries() - attempt);
+        long shareMs = Math.max(1, remainingMs / shares);
+        return step.getTimeoutMs() > 0 ? Math.min(step.getTimeoutMs(), shareMs) : shareMs;
+    }
+
+    /**
+     * Check whether a failed step may be retried: not while the circuit breaker of its target is open,
+     * and only if the retry budget of its target grants a retry
+     */
+    private boolean retryPermitted(StepPlan step, int attemptsMade) {
+        CircuitBreaker breaker = circuitBreakers.forTarget(step.getTarget());
+        if (breaker != null && !breaker.allowsCalls()) {
+            logger.error("Step '{}' failed after {} attempts, circuit breaker for '{}' is open",
+                    step.getName(), attemptsMade, step.getTarget());
+            return false;
+        }
+        if (!retryBudget.tryAcquireRetry(step.getTarget())) {
+            logger.error("Step '{}' failed after {} attempts, retry budget of '{}' exhausted",
+                    step.getName(), attemptsMade, step.getTarget());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Start a single attempt of a step through the circuit breaker of its target.
+     * An attempt rejected by an open breaker, or started after the saga deadline, fails without running
+     * the command; an attempt that times out counts as a failure of the target.
+     * Cancelling the returned future cancels the command.
+     */
+    private CompletableFuture<Boolean> attemptStep(SagaContext context, StepPlan step, int attempt) {
+        long timeoutMs = attemptTimeoutMs(context, step, attempt);
+        if (timeoutMs < 0) {
+            logger.error("Step '{}' not attempted, the saga deadline has passed", step.getName());
+            metrics.attemptRejected(step);
+            trace.attempt(context, step, TraceEvent.Type.ATTEMPT_REJECTED, attempt);
+            return CompletableFuture.completedFuture(false);
         }
         
-        logger.info("Executing compensation for step: {}", step.getName());
+        CircuitBreaker breaker = circuitBreakers.forTarget(step.getTarget());
+        if (breaker != null && !breaker.tryAcquire()) {
+            logger.warn("Step '{}' rejected on attempt {}, circuit breaker for '{}' is {}",
+                    step.getName(), attempt + 1, step.getTarget(), breaker.getState());
+            metrics.attemptRejected(step);
+            trace.attempt(context, step, TraceEvent.Type.ATTEMPT_REJECTED, attempt);
+            return CompletableFuture.completedFuture(false);
+        }
         
+        StepRequest request = new StepRequest(context.getExecutionId(), step.getKey(), step.getCommand(),
+                step.getInput(), attempt, false, timeoutMs);
+        CompletableFuture<Boolean> execution;
+        metrics.attemptStarted();
+        trace.attempt(context, step, TraceEvent.Type.ATTEMPT_STARTED, attempt);
+        long startedAt = System.nanoTime();
         try {
-            boolean success = simulateCommandExecution(step.getCompensateCommand(), step.getInput());
+            execution = stepHandlers.handlerFor(step.getCommand()).execute(request);
+        } catch (Exception e) {
+            execution = CompletableFuture.failedFuture(e);
+        }
+        
+        CompletableFuture<Boolean> handlerExecution = execution;
+        CompletableFuture<Boolean> outcome = withTimeout(execution, timeoutMs).handle((success, error) -> {
+            boolean timedOut = isTimeout(error);
+            boolean cancelled = !timedOut
+                    && (isCancellation(error) || (error == null && !success && Thread.currentThread().isInterrupted()));
+            boolean succeeded = error == null && success;
+            AttemptOutcome attemptOutcome = null;
+            TraceEvent.Type event = TraceEvent.Type.ATTEMPT_CANCELLED;
+            if (timedOut) {
+                attemptOutcome = AttemptOutcome.TIMEOUT;
+                event = TraceEvent.Type.ATTEMPT_TIMED_OUT;
+            } else if (!cancelled) {
+                attemptOutcome = succeeded ? AttemptOutcome.SUCCESS : AttemptOutcome.FAILURE;
+                event = succeeded ? TraceEvent.Type.ATTEMPT_SUCCEEDED : TraceEvent.Type.ATTEMPT_FAILED;
+            }
+            metrics.attemptFinished(step, attemptOutcome, System.nanoTime() - startedAt);
+            trace.attempt(context, step, event, attempt);
+            if (breaker != null) {
+                if (cancelled) {
+                    // Not a failure of the target
+                    breaker.onIgnored();
+                } else if (succeeded) {
+                    breaker.onSuccess();
+                } else {
+                    breaker.onFailure();
+                }
+            }
             
-            if (success) {
-                logger.info("Compensation for step '{}' executed successfully", step.getName());
+            if (succeeded) {
+                logger.debug("Step '{}' executed successfully", step.getName());
                 return true;
+            }
+            if (timedOut) {
+                logger.warn("Step '{}' timed out after {} ms on attempt {}", step.getName(), timeoutMs, attempt + 1);
+            } else if (error != null && !cancelled) {
+                logger.error("Step '{}' execution failed with exception on attempt {}", step.getName(), attempt + 1, unwrap(error));
             } else {
-                logger.error("Compensation for step '{}' failed", step.getName());
-                return false;
+                logger.warn("Step '{}' failed on attempt {}", step.getName(), attempt + 1);
             }
-            
-        } catch (Exception e) {
-            logger.error("Compensation for step '{}' failed with exception", step.getName(), e);
             return false;
-        }
+        });
+        outcome.whenComplete((success, error) -> {
+            if (outcome.isCancelled()) {
+                handlerExecution.cancel(true);
+            }
+        });
+        return outcome;
     }
 
     /**
-     * Simulate command execution
-     * Returns false if command equals "FAIL" to simulate failure
+     * Start compensation for a step; its future completes once the handler has finished, or with false
+     * once the step's timeout elapses. Compensation is not bound by the saga deadline, which has often
+     * passed by the time it runs.
      */
-    private boolean simulateCommandExecution(String command, String input) {
-        logger.info("Executing command: {} with input: {}", command, input);
+    private CompletableFuture<Boolean> startCompensation(SagaContext context, StepPlan step) {
+        if (!step.hasCompensation()) {
+            logger.debug("No compensation command defined for step: {}", step.getName());
+            return CompletableFuture.completedFuture(true);
+        }
+        
+        logger.debug("Executing compensation for step: {}", step.getName());
+        
+        StepRequest request = new StepRequest(context.getExecutionId(), step.getKey(), step.getCompensateCommand(),
+                step.getInput(), 0, true, step.getTimeoutMs());
+        CompletableFuture<Boolean> execution;
+        try {
+            execution = stepHandlers.handlerFor(step.getCompensateCommand()).execute(request);
+        } catch (Exception e) {
+            execution = CompletableFuture.failedFuture(e);
+        }
         
-        // Simulate processing time
+        return withTimeout(execution, step.getTimeoutMs()).handle((success, error) -> {
+            if (error == null && Boolean.TRUE.equals(success)) {
+                logger.debug("Compensation for step '{}' executed successfully", step.getName());
+                return true;
+            }
+            if (isTimeout(error)) {
+                logger.error("Compensation for step '{}' timed out after {} ms", step.getName(), step.getTimeoutMs());
+            } else if (error != null) {
+                logger.error("Compensation for step '{}' failed with exception", step.getName(), unwrap(error));
+            } else {
+                logger.error("Compensation for step '{}' failed", step.getName());
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Block until a command completes; interrupting the caller cancels the command and counts as failure
+     */
+    private static boolean await(CompletableFuture<Boolean> execution) {
         try {
-            Thread.sleep(100);
+            return Boolean.TRUE.equals(execution.get());
         } catch (InterruptedException e) {
+            execution.cancel(true);
             Thread.currentThread().interrupt();
             return false;
-        }
-        
-        // Simulate failure if command is "FAIL"
-        if ("FAIL".equals(command)) {
-            logger.warn("Command execution failed (simulated failure)");
+        } catch (ExecutionException | CancellationException e) {
+            if (isTimeout(e)) {
+                logger.error("Command timed out");
+            } else {
+                logger.error("Command failed with exception", unwrap(e));
+            }
             return false;
         }
-        
-        // Simulate success for all other commands
-        logger.info("Command executed successfully");
-        return true;
+    }
+
+    /**
+     * Future of a command that fails with a TimeoutException once the timeout elapses;
+     * timing out or cancelling it cancels the command
+     */
+    private static CompletableFuture<Boolean> withTimeout(CompletableFuture<Boolean> execution, long timeoutMs) {
+        if (timeoutMs <= 0 || execution.isDone()) {
+            return execution;
+        }
+        CompletableFuture<Boolean> timed = execution.copy().orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+        timed.whenComplete((success, error) -> {
+            if (timed.isCancelled() || isTimeout(error)) {
+                execution.cancel(true);
+            }
+        });
+        return timed;
+    }
+
+    private static boolean isTimeout(Throwable error) {
+        return unwrap(error) instanceof TimeoutException;
+    }
+
+    private static boolean isCancellation(Throwable error) {
+        return unwrap(error) instanceof CancellationException;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException) && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    /**
+     * Result of an async step execution. Records the final step state before completing,
+     * and tracks the thread starting the current attempt and the attempt's command,
+     * so cancellation can interrupt the one and abort the other.
+     */
+    private class StepRun extends CompletableFuture<Boolean> {
+        private final SagaContext context;
+        private final StepPlan step;
+        private final Executor executor;
+        private final Bulkhead bulkhead;
+        private final Object lock = new Object();
+        private final long startedAtNanos = System.nanoTime();
+        private long retryDelayMs;
+        private volatile CompletableFuture<Boolean> attempt;
+        private Thread worker;
+        private boolean settled;
+        private boolean interrupted;
+
+        StepRun(SagaContext context, StepPlan step, Executor executor, Bulkhead bulkhead) {
+            this.context = context;
+            this.step = step;
+            this.executor = executor;
+            this.bulkhead = bulkhead;
+        }
+
+        /**
+         * Mark the current thread as running an attempt; false if the run is already settled
+         */
+        boolean enter() {
+            synchronized (lock) {
+                if (settled) {
+                    return false;
+                }
+                worker = Thread.currentThread();
+                return true;
+            }
+        }
+
+        /**
+         * Release the current thread, clearing an interrupt delivered by cancellation
+         */
+        void exit() {
+            boolean clearInterrupt;
+            synchronized (lock) {
+                worker = null;
+                clearInterrupt = interrupted;
+            }
+            if (clearInterrupt) {
+                Thread.interrupted();
+            }
+        }
+
+        void finish(boolean success) {
+            synchronized (lock) {
+                if (settled) {
+                    return;
+                }
+                settled = true;
+            }
+            // Only the thread settling the run gets here; the state store may wait for the journal
+            stateStore.updateStepState(context.getExecutionId(), step, success ? TaskState.COMPLETED : TaskState.FAILED);
+            trace.step(context, step, success ? TraceEvent.Type.STEP_COMPLETED : TraceEvent.Type.STEP_FAILED);
+            metrics.stepFinished(step, success, System.nanoTime() - startedAtNanos);
+            complete(success);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            synchronized (lock) {
+                if (settled) {
+                    return false;
+                }
+                settled = true;
+                if (worker != null && mayInterruptIfRunning) {
+                    interrupted = true;
+                    worker.interrupt();
+                }
+            }
+            stateStore.updateStepState(context.getExecutionId(), step, TaskState.CANCELLED);
+            trace.step(context, step, TraceEvent.Type.STEP_CANCELLED);
+            // Cancel before reading the attempt: one published after this read sees the run cancelled and cancels itself
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            CompletableFuture<Boolean> current = attempt;
+            if (current != null) {
+                current.cancel(mayInterruptIfRunning);
+            }
+            logger.warn("Step '{}' cancelled", step.getName());
+            return cancelled;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,310 @@
+package com.example.orchestrator.graph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+
+/**
+ * Dependency-driven execution of a graph. Nodes without dependencies start immediately;
+ * every other node is launched by whichever dependency finishes last. When several nodes become
+ * ready together, the ones on the longest remaining path are launched first.
+ * After a failure no further nodes are launched and the execution completes once in-flight nodes finish.
+ * In fail-fast mode the first failure also cancels the nodes that are still in flight.
+ * The number of nodes in flight can optionally be bounded.
+ */
+public final class DagExecution {
+    private static final int LAUNCHED = 1;
+    private static final int CANCEL_REQUESTED = 2;
+    private static final int FINISHED = 3;
+
+    private final DependencyGraph graph;
+    private final IntFunction<CompletableFuture<Boolean>> launcher;
+    private final AtomicIntegerArray pendingDependencies;
+    private final AtomicIntegerArray status;
+    private final AtomicReferenceArray<CompletableFuture<Boolean>> inFlight;
+    private final AtomicInteger running = new AtomicInteger();
+    private final Queue<Integer> succeeded = new ConcurrentLinkedQueue<>();
+    private final Queue<Integer> failed = new ConcurrentLinkedQueue<>();
+    private final Queue<Integer> cancelled = new ConcurrentLinkedQueue<>();
+    private final CompletableFuture<Outcome> done = new CompletableFuture<>();
+    private final AtomicInteger active = new AtomicInteger();
+    private final PriorityBlockingQueue<Integer> queued;
+    private IntConsumer canceller;
+    private boolean failFast;
+    private int maxConcurrency;
+    private volatile boolean stopping;
+
+    public DagExecution(DependencyGraph graph, IntFunction<CompletableFuture<Boolean>> launcher) {
+        this.graph = graph;
+        this.launcher = launcher;
+        this.pendingDependencies = new AtomicIntegerArray(graph.size());
+        this.status = new AtomicIntegerArray(graph.size());
+        this.inFlight = new AtomicReferenceArray<>(graph.size());
+        this.queued = new PriorityBlockingQueue<>(Math.max(1, graph.size()),
+                (a, b) -> Integer.compare(graph.criticalPathLength(b), graph.criticalPathLength(a)));
+        this.canceller = index -> {
+            CompletableFuture<Boolean> future = inFlight.get(index);
+            if (future != null) {
+                future.cancel(true);
+            }
+        };
+        for (int i = 0; i < graph.size(); i++) {
+            pendingDependencies.set(i, graph.dependencies(i).length);
+        }
+    }
+
+    /**
+     * Run the graph, launching each node through the launcher once its dependencies have succeeded
+     */
+    public static CompletableFuture<Outcome> run(DependencyGraph graph, IntFunction<CompletableFuture<Boolean>> launcher) {
+        return new DagExecution(graph, launcher).start();
+    }
+
+    /**
+     * Cancel in-flight nodes as soon as one node fails
+     */
+    public DagExecution failFast(boolean failFast) {
+        this.failFast = failFast;
+        return this;
+    }
+
+    /**
+     * Limit how many nodes are in flight at once; ready nodes beyond the limit wait,
+     * longest remaining path first. Zero or less means unbounded.
+     */
+    public DagExecution maxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+        return this;
+    }
+
+    /**
+     * Replace how an in-flight node is cancelled; by default its future is cancelled with interruption.
+     * A node cancelled this way may still complete normally, and is reported as cancelled if it did not succeed.
+     */
+    public DagExecution cancelWith(IntConsumer canceller) {
+        this.canceller = canceller;
+        return this;
+    }
+
+    /**
+     * Start the execution; the returned future completes once no node is in flight
+     */
+    public CompletableFuture<Outcome> start() {
+        List<Integer> roots = new ArrayList<>();
+        for (int i = 0; i < graph.size(); i++) {
+            if (graph.dependencies(i).length == 0) {
+                roots.add(i);
+            }
+        }
+
+        if (roots.isEmpty()) {
+            complete();
+        } else {
+            launch(roots);
+        }
+        return done;
+    }
+
+    /**
+     * Stop launching nodes and cancel the ones in flight
+     */
+    public void cancel() {
+        stopping = true;
+        for (int i = 0; i < graph.size(); i++) {
+            if (status.compareAndSet(i, LAUNCHED, CANCEL_REQUESTED)) {
+                canceller.accept(i);
+            }
+        }
+    }
+
+    /**
+     * Check if no further nodes will be launched, because a node failed or cancel was called
+     */
+    public boolean isStopping() {
+        return stopping;
+    }
+
+    /**
+     * Check if any node has failed (as opposed to being cancelled)
+     */
+    public boolean isFailed() {
+        return !failed.isEmpty();
+    }
+
+    private void launch(List<Integer> ready) {
+        running.addAndGet(ready.size());
+        if (maxConcurrency > 0) {
+            queued.addAll(ready);
+            drain();
+            return;
+        }
+        for (int index : graph.byCriticalPath(ready.stream().mapToInt(Integer::intValue).toArray())) {
+            launchNow(index);
+        }
+    }
+
+    /**
+     * Launch queued nodes while below the concurrency limit
+     */
+    private void drain() {
+        while (true) {
+            if (stopping) {
+                if (queued.poll() == null) {
+                    return;
+                }
+                // Never launched
+                if (running.decrementAndGet() == 0) {
+                    complete();
+                }
+                continue;
+            }
+
+            int current = active.get();
+            if (current >= maxConcurrency) {
+                return;
+            }
+            if (!active.compareAndSet(current, current + 1)) {
+                continue;
+            }
+            Integer next = queued.poll();
+            if (next == null) {
+                active.decrementAndGet();
+                if (queued.isEmpty()) {
+                    return;
+                }
+                continue;
+            }
+            launchNow(next);
+        }
+    }
+
+    private void launchNow(int index) {
+        if (stopping) {
+            // Never launched
+            if (maxConcurrency > 0) {
+                active.decrementAndGet();
+            }
+            if (running.decrementAndGet() == 0) {
+                complete();
+            }
+            return;
+        }
+
+        CompletableFuture<Boolean> future;
+        try {
+            future = launcher.apply(index);
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        inFlight.set(index, future);
+        status.set(index, LAUNCHED);
+        if (stopping && status.compareAndSet(index, LAUNCHED, CANCEL_REQUESTED)) {
+            canceller.accept(index);
+        }
+        future.whenComplete((success, error) -> onFinished(index, error == null && Boolean.TRUE.equals(success)));
+    }
+
+    private void onFinished(int index, boolean success) {
+        boolean cancelRequested = status.getAndSet(index, FINISHED) == CANCEL_REQUESTED;
+        inFlight.set(index, null);
+        if (maxConcurrency > 0) {
+            active.decrementAndGet();
+        }
+
+        if (success) {
+            succeeded.add(index);
+            if (!stopping) {
+                List<Integer> ready = new ArrayList<>();
+                for (int dependent : graph.dependents(index)) {
+                    if (pendingDependencies.decrementAndGet(dependent) == 0) {
+                        ready.add(dependent);
+                    }
+                }
+                if (!ready.isEmpty()) {
+                    launch(ready);
+                }
+            }
+        } else if (cancelRequested) {
+            cancelled.add(index);
+        } else {
+            failed.add(index);
+            if (failFast) {
+                cancel();
+            } else {
+                stopping = true;
+            }
+        }
+
+        if (maxConcurrency > 0) {
+            drain();
+        }
+        if (running.decrementAndGet() == 0) {
+            complete();
+        }
+    }
+
+    private void complete() {
+        done.complete(new Outcome(graph.size(), toArray(succeeded), toArray(failed), toArray(cancelled)));
+    }
+
+    private static int[] toArray(Queue<Integer> indexes) {
+        return indexes.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Result of a graph execution
+     */
+    public static final class Outcome {
+        private final int size;
+        private final int[] succeeded;
+        private final int[] failed;
+        private final int[] cancelled;
+
+        Outcome(int size, int[] succeeded, int[] failed, int[] cancelled) {
+            this.size = size;
+            this.succeeded = succeeded;
+            this.failed = failed;
+            this.cancelled = cancelled;
+        }
+
+        /**
+         * Indexes of nodes that succeeded, in completion order
+         */
+        public int[] getSucceeded() {
+            return succeeded;
+        }
+
+        /**
+         * Indexes of nodes that failed, in completion order
+         */
+        public int[] getFailed() {
+            return failed;
+        }
+
+        /**
+         * Indexes of nodes that were cancelled in flight, in completion order
+         */
+        public int[] getCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * Number of nodes that were never launched
+         */
+        public int getNotStarted() {
+            return size - succeeded.length - failed.length - cancelled.length;
+        }
+
+        public boolean isSuccess() {
+            return succeeded.length == size;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,208 @@
+package com.example.orchestrator.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+/**
+ * Immutable dependency graph over named nodes, addressed by their declaration index.
+ * Validates that every dependency exists and that the graph is acyclic.
+ */
+public final class DependencyGraph {
+    private static final int[] NONE = new int[0];
+
+    private final String[] names;
+    private final int[][] dependencies;
+    private final int[][] dependents;
+    private final int[] topologicalOrder;
+    private final int[] criticalPathLength;
+
+    private DependencyGraph(String[] names, int[][] dependencies) {
+        this.names = names;
+        this.dependencies = dependencies;
+        this.dependents = invert(dependencies);
+        this.topologicalOrder = sort(names, dependencies, dependents);
+        this.criticalPathLength = computeCriticalPathLength(topologicalOrder, dependents);
+    }
+
+    /**
+     * Build a graph from a list of nodes, their names and the names they depend on
+     */
+    public static <T> DependencyGraph of(List<T> nodes, Function<T, String> nameOf, Function<T, List<String>> dependsOnOf) {
+        int size = nodes.size();
+        String[] names = new String[size];
+        Map<String, Integer> indexByName = new HashMap<>();
+
+        for (int i = 0; i < size; i++) {
+            names[i] = nameOf.apply(nodes.get(i));
+            if (indexByName.put(names[i], i) != null) {
+                throw new IllegalArgumentException("Duplicate name in dependency graph: " + names[i]);
+            }
+        }
+
+        int[][] dependencies = new int[size][];
+        for (int i = 0; i < size; i++) {
+            List<String> dependsOn = dependsOnOf.apply(nodes.get(i));
+            if (dependsOn == null || dependsOn.isEmpty()) {
+                dependencies[i] = NONE;
+                continue;
+            }
+            dependencies[i] = new int[dependsOn.size()];
+            for (int d = 0; d < dependsOn.size(); d++) {
+                Integer index = indexByName.get(dependsOn.get(d));
+                if (index == null) {
+                    throw new IllegalArgumentException(
+                            "'" + names[i] + "' depends on unknown '" + dependsOn.get(d) + "'");
+                }
+                dependencies[i][d] = index;
+            }
+        }
+
+        return new DependencyGraph(names, dependencies);
+    }
+
+    /**
+     * Build a graph from node names and, per node, the indexes of the nodes it depends on
+     */
+    public static DependencyGraph of(String[] names, int[][] dependencies) {
+        if (names.length != dependencies.length) {
+            throw new IllegalArgumentException("Expected dependencies for each of the " + names.length + " nodes");
+        }
+        for (int i = 0; i < dependencies.length; i++) {
+            for (int dependency : dependencies[i]) {
+                if (dependency < 0 || dependency >= names.length) {
+                    throw new IllegalArgumentException("'" + names[i] + "' depends on unknown node " + dependency);
+                }
+            }
+        }
+        return new DependencyGraph(names.clone(), dependencies.clone());
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public String name(int index) {
+        return names[index];
+    }
+
+    /**
+     * Indexes of the nodes this node depends on
+     */
+    public int[] dependencies(int index) {
+        return dependencies[index];
+    }
+
+    /**
+     * Indexes of the nodes that depend on this node
+     */
+    public int[] dependents(int index) {
+        return dependents[index];
+    }
+
+    /**
+     * Check if any node declares a dependency
+     */
+    public boolean hasDependencies() {
+        for (int[] nodeDependencies : dependencies) {
+            if (nodeDependencies.length > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Topological order; ties are broken by declaration order, so an already ordered list is kept as is
+     */
+    public int[] topologicalOrder() {
+        return topologicalOrder.clone();
+    }
+
+    /**
+     * Number of nodes on the longest path from this node to a node nothing depends on
+     */
+    public int criticalPathLength(int index) {
+        return criticalPathLength[index];
+    }
+
+    /**
+     * Order the given node indexes so nodes on longer critical paths come first
+     */
+    public int[] byCriticalPath(int[] indexes) {
+        return Arrays.stream(indexes)
+                .boxed()
+                .sorted((a, b) -> Integer.compare(criticalPathLength[b], criticalPathLength[a]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private static int[][] invert(int[][] dependencies) {
+        List<List<Integer>> reverse = new ArrayList<>();
+        for (int i = 0; i < dependencies.length; i++) {
+            reverse.add(new ArrayList<>());
+        }
+        for (int i = 0; i < dependencies.length; i++) {
+            for (int dependency : dependencies[i]) {
+                reverse.get(dependency).add(i);
+            }
+        }
+
+        int[][] dependents = new int[dependencies.length][];
+        for (int i = 0; i < dependencies.length; i++) {
+            dependents[i] = reverse.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return dependents;
+    }
+
+    private static int[] sort(String[] names, int[][] dependencies, int[][] dependents) {
+        int[] remaining = new int[names.length];
+        PriorityQueue<Integer> ready = new PriorityQueue<>();
+        for (int i = 0; i < names.length; i++) {
+            remaining[i] = dependencies[i].length;
+            if (remaining[i] == 0) {
+                ready.add(i);
+            }
+        }
+
+        int[] order = new int[names.length];
+        int count = 0;
+        while (!ready.isEmpty()) {
+            int next = ready.poll();
+            order[count++] = next;
+            for (int dependent : dependents[next]) {
+                if (--remaining[dependent] == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+
+        if (count < names.length) {
+            List<String> cyclic = new ArrayList<>();
+            for (int i = 0; i < names.length; i++) {
+                if (remaining[i] > 0) {
+                    cyclic.add(names[i]);
+                }
+            }
+            throw new IllegalArgumentException("Dependency cycle between: " + cyclic);
+        }
+        return order;
+    }
+
+    private static int[] computeCriticalPathLength(int[] topologicalOrder, int[][] dependents) {
+        int[] length = new int[topologicalOrder.length];
+        for (int i = topologicalOrder.length - 1; i >= 0; i--) {
+            int node = topologicalOrder[i];
+            int longest = 0;
+            for (int dependent : dependents[node]) {
+                longest = Math.max(longest, length[dependent]);
+            }
+            length[node] = longest + 1;
+        }
+        return length;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.example.orchestrator.graph;
+
+import com.example.orchestrator.models.dto.StepDefinition;
+import com.example.orchestrator.models.dto.TaskDefinition;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Builds dependency graphs for the steps of a task and the tasks of a workflow
+ */
+public final class WorkflowGraphs {
+
+    private WorkflowGraphs() {
+    }
+
+    /**
+     * Graph of the steps of a task from their dependsOn declarations
+     */
+    public static DependencyGraph forSteps(TaskDefinition task) {
+        return DependencyGraph.of(task.getSteps(), StepDefinition::getName, StepDefinition::getDependsOn);
+    }
+
+    /**
+     * Graph of the tasks of a workflow. If no task declares dependsOn, each task depends on the
+     * previous one so workflows keep running in declaration order; otherwise the declared graph
+     * is used and tasks without dependsOn may start immediately.
+     */
+    public static DependencyGraph forTasks(List<TaskDefinition> tasks) {
+        boolean declared = tasks.stream().anyMatch(TaskDefinition::hasDependencies);
+        if (declared) {
+            return DependencyGraph.of(tasks, TaskDefinition::getName, TaskDefinition::getDependsOn);
+        }
+
+        List<List<String>> chain = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            chain.add(i == 0 ? Collections.emptyList() : List.of(tasks.get(i - 1).getName()));
+        }
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            indexes.add(i);
+        }
+        return DependencyGraph.of(indexes, i -> tasks.get(i).getName(), chain::get);
+    }
+}
\ No newline at end of file
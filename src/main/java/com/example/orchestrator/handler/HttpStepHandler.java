@@ -0,0 +1,178 @@
+package com.example.orchestrator.handler;
+
+import com.example.orchestrator.plan.CommandTargets;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Handler that sends commands of the form {@code VERB url-or-path} as HTTP requests with the step input
+ * as JSON body, through one shared JDK HttpClient. Requests are sent asynchronously, so no orchestrator
+ * thread waits on the network; the client pools connections and multiplexes requests over HTTP/2 where
+ * the server supports it. Paths are resolved against the base URL configured for their command target,
+ * or the default base URL. A 2xx response is a success. The request timeout is capped by the time left
+ * to the step's deadline, which is also sent to the service so it can give up on work it cannot finish
+ * in time; no request is sent once the deadline has passed.
+ */
+@Component
+@Order(0)
+public class HttpStepHandler implements StepHandler {
+    private static final Logger logger = LoggerFactory.getLogger(HttpStepHandler.class);
+
+    private static final Set<String> METHODS = Set.of("GET", "POST", "PUT", "PATCH", "DELETE", "HEAD");
+
+    /** Header carrying the milliseconds the service has left to complete the request */
+    public static final String TIMEOUT_HEADER = "X-Saga-Timeout-Ms";
+
+    @Value("${orchestrator.handlers.http.enabled:false}")
+    private boolean enabled;
+
+    @Value("${orchestrator.handlers.http.base-url:}")
+    private String defaultBaseUrl;
+
+    @Value("${orchestrator.handlers.http.base-urls:}")
+    private String targetBaseUrls;
+
+    @Value("${orchestrator.handlers.http.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+
+    @Value("${orchestrator.handlers.http.request-timeout-ms:10000}")
+    private long requestTimeoutMs;
+
+    private final Map<String, String> baseUrls = new HashMap<>();
+
+    private HttpClient client;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        for (String mapping : targetBaseUrls.split(",")) {
+            int separator = mapping.indexOf('=');
+            if (separator > 0) {
+                baseUrls.put(CommandTargets.of(mapping.substring(0, separator).trim()),
+                        stripTrailingSlash(mapping.substring(separator + 1).trim()));
+            } else if (!mapping.isBlank()) {
+                throw new IllegalArgumentException("Invalid base URL mapping, expected /target=url: " + mapping);
+            }
+        }
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        logger.info("HTTP step handler enabled, default base URL '{}', {} target base URLs", defaultBaseUrl, baseUrls.size());
+    }
+
+    @Override
+    public boolean supports(String command) {
+        return enabled && command != null && resolve(command) != null;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> execute(StepRequest request) {
+        long timeoutMs = Math.min(requestTimeoutMs, request.remainingMs());
+        if (timeoutMs <= 0) {
+            logger.warn("[{}] Deadline of step '{}' has passed, not sending {}", request.getExecutionId(),
+                    request.getStepKey(), request.getCommand());
+            return CompletableFuture.completedFuture(false);
+        }
+        HttpRequest httpRequest = buildRequest(request, timeoutMs);
+        logger.debug("[{}] Sending {} {} for step '{}'", request.getExecutionId(), httpRequest.method(),
+                httpRequest.uri(), request.getStepKey());
+
+        CompletableFuture<HttpResponse<Void>> exchange = client.sendAsync(httpRequest, HttpResponse.BodyHandlers.discarding());
+        // A future of our own: the client's derived futures complete normally when cancelled
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        exchange.handle((response, error) -> {
+            if (error != null) {
+                logger.warn("[{}] {} {} failed: {}", request.getExecutionId(), httpRequest.method(), httpRequest.uri(),
+                        error.toString());
+                return false;
+            }
+            boolean success = response.statusCode() / 100 == 2;
+            if (!success) {
+                logger.warn("[{}] {} {} returned {}", request.getExecutionId(), httpRequest.method(), httpRequest.uri(),
+                        response.statusCode());
+            }
+            return success;
+        }).thenAccept(result::complete);
+        // Cancelling the result aborts the exchange
+        result.whenComplete((success, error) -> {
+            if (result.isCancelled()) {
+                exchange.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private HttpRequest buildRequest(StepRequest request, long timeoutMs) {
+        String command = request.getCommand().trim();
+        int space = command.indexOf(' ');
+        String method = command.substring(0, space).toUpperCase(Locale.ROOT);
+        String input = request.getInput();
+
+        HttpRequest.BodyPublisher body = input == null || "GET".equals(method) || "HEAD".equals(method)
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(input);
+        HttpRequest.Builder builder = HttpRequest.newBuilder(resolve(command))
+                .timeout(Duration.ofMillis(timeoutMs))
+                .header("X-Saga-Execution-Id", request.getExecutionId())
+                .header("X-Saga-Step", request.getStepKey())
+                .method(method, body);
+        if (input != null) {
+            builder.header("Content-Type", "application/json");
+        }
+        if (request.hasDeadline()) {
+            builder.header(TIMEOUT_HEADER, Long.toString(timeoutMs));
+        }
+        return builder.build();
+    }
+
+    /**
+     * URI of a command, or null if it is not an HTTP command this handler can address
+     */
+    private URI resolve(String command) {
+        String trimmed = command.trim();
+        int space = trimmed.indexOf(' ');
+        if (space < 0 || !METHODS.contains(trimmed.substring(0, space).toUpperCase(Locale.ROOT))) {
+            return null;
+        }
+        String resource = trimmed.substring(space + 1).trim();
+        try {
+            if (resource.startsWith("http://") || resource.startsWith("https://")) {
+                return URI.create(resource);
+            }
+            if (!resource.startsWith("/")) {
+                return null;
+            }
+            String baseUrl = baseUrls.getOrDefault(CommandTargets.of(resource), defaultBaseUrl);
+            if (baseUrl == null || baseUrl.isBlank()) {
+                return null;
+            }
+            return URI.create(stripTrailingSlash(baseUrl) + resource);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Command '{}' does not address a valid URL", command);
+            return null;
+        }
+    }
+
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
\ No newline at end of file
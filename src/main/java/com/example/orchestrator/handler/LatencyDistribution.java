@@ -0,0 +1,166 @@
+package com.example.orchestrator.handler;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Distribution of the latency of a simulated command, in milliseconds. Samples are drawn from the
+ * random generator passed in, so a seeded generator gives a reproducible sequence of latencies.
+ */
+public interface LatencyDistribution {
+
+    /** z-score of the 99th percentile of the standard normal distribution */
+    double Z_99 = 2.3263478740408408;
+
+    double sampleMs(RandomGenerator random);
+
+    /**
+     * Always the same latency
+     */
+    static LatencyDistribution fixed(double latencyMs) {
+        if (latencyMs < 0) {
+            throw new IllegalArgumentException("Latency must not be negative: " + latencyMs);
+        }
+        return new Fixed(latencyMs);
+    }
+
+    /**
+     * Any latency between min and max with equal probability
+     */
+    static LatencyDistribution uniform(double minMs, double maxMs) {
+        if (minMs < 0 || maxMs < minMs) {
+            throw new IllegalArgumentException("Invalid uniform latency range: " + minMs + " to " + maxMs);
+        }
+        return new Uniform(minMs, maxMs);
+    }
+
+    /**
+     * Log-normal latency with the given median and 99th percentile, the long-tailed shape typical of
+     * network services, optionally capped at max (0 for no cap)
+     */
+    static LatencyDistribution logNormal(double medianMs, double p99Ms, double maxMs) {
+        if (medianMs <= 0 || p99Ms < medianMs || maxMs < 0) {
+            throw new IllegalArgumentException("Invalid log-normal latency: median " + medianMs + ", p99 " + p99Ms);
+        }
+        return new LogNormal(medianMs, p99Ms, maxMs);
+    }
+
+    /**
+     * Empirical latency histogram: bucket i holds latencies between the previous bound (or min for
+     * the first bucket) and upperBoundsMs[i], and is drawn with a probability proportional to its weight.
+     * Latencies are spread uniformly within a bucket.
+     */
+    static LatencyDistribution histogram(double minMs, double[] upperBoundsMs, double[] weights) {
+        if (upperBoundsMs.length == 0 || upperBoundsMs.length != weights.length) {
+            throw new IllegalArgumentException("Latency histogram needs a weight for each of at least one bucket");
+        }
+        double[] cumulative = new double[weights.length];
+        double total = 0;
+        double previousBound = minMs;
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] < 0 || upperBoundsMs[i] < previousBound) {
+                throw new IllegalArgumentException("Invalid latency histogram bucket up to " + upperBoundsMs[i] + " ms");
+            }
+            total += weights[i];
+            cumulative[i] = total;
+            previousBound = upperBoundsMs[i];
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("Latency histogram has no weight");
+        }
+        return new Histogram(minMs, upperBoundsMs.clone(), cumulative);
+    }
+
+    final class Fixed implements LatencyDistribution {
+        private final double latencyMs;
+
+        private Fixed(double latencyMs) {
+            this.latencyMs = latencyMs;
+        }
+
+        @Override
+        public double sampleMs(RandomGenerator random) {
+            return latencyMs;
+        }
+
+        @Override
+        public String toString() {
+            return "fixed(" + latencyMs + " ms)";
+        }
+    }
+
+    final class Uniform implements LatencyDistribution {
+        private final double minMs;
+        private final double maxMs;
+
+        private Uniform(double minMs, double maxMs) {
+            this.minMs = minMs;
+            this.maxMs = maxMs;
+        }
+
+        @Override
+        public double sampleMs(RandomGenerator random) {
+            return minMs + random.nextDouble() * (maxMs - minMs);
+        }
+
+        @Override
+        public String toString() {
+            return "uniform(" + minMs + " to " + maxMs + " ms)";
+        }
+    }
+
+    final class LogNormal implements LatencyDistribution {
+        private final double medianMs;
+        private final double p99Ms;
+        private final double maxMs;
+        private final double mu;
+        private final double sigma;
+
+        private LogNormal(double medianMs, double p99Ms, double maxMs) {
+            this.medianMs = medianMs;
+            this.p99Ms = p99Ms;
+            this.maxMs = maxMs;
+            this.mu = Math.log(medianMs);
+            this.sigma = Math.log(p99Ms / medianMs) / Z_99;
+        }
+
+        @Override
+        public double sampleMs(RandomGenerator random) {
+            double latency = Math.exp(mu + sigma * random.nextGaussian());
+            return maxMs > 0 ? Math.min(latency, maxMs) : latency;
+        }
+
+        @Override
+        public String toString() {
+            return "log-normal(median " + medianMs + " ms, p99 " + p99Ms + " ms" + (maxMs > 0 ? ", max " + maxMs + " ms)" : ")");
+        }
+    }
+
+    final class Histogram implements LatencyDistribution {
+        private final double minMs;
+        private final double[] upperBoundsMs;
+        private final double[] cumulativeWeights;
+
+        private Histogram(double minMs, double[] upperBoundsMs, double[] cumulativeWeights) {
+            this.minMs = minMs;
+            this.upperBoundsMs = upperBoundsMs;
+            this.cumulativeWeights = cumulativeWeights;
+        }
+
+        @Override
+        public double sampleMs(RandomGenerator random) {
+            double point = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+            int bucket = Arrays.binarySearch(cumulativeWeights, point);
+            // Not found gives -(insertion point) - 1; a point on a bound belongs to the next bucket
+            bucket = bucket < 0 ? -bucket - 1 : bucket + 1;
+            bucket = Math.min(bucket, cumulativeWeights.length - 1);
+            double lower = bucket == 0 ? minMs : upperBoundsMs[bucket - 1];
+            return lower + random.nextDouble() * (upperBoundsMs[bucket] - lower);
+        }
+
+        @Override
+        public String toString() {
+            return "histogram(" + upperBoundsMs.length + " buckets up to " + upperBoundsMs[upperBoundsMs.length - 1] + " ms)";
+        }
+    }
+}
\ No newline at end of file
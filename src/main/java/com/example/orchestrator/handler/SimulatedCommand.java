@@ -0,0 +1,149 @@
+package com.example.orchestrator.handler;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency and failure model of a simulated command. Each invocation draws its latency and outcome
+ * from a random generator seeded with the profile seed, the command and the invocation number, so
+ * for a given seed the n-th invocation of a command always behaves the same. Failures are
+ * independent with the failure rate, except during a burst: with the burst probability an invocation
+ * starts a burst in which it and the next burst-length minus one invocations all fail. Burst starts
+ * are drawn from their own seeded sequence, so whether an invocation falls in a burst depends only on
+ * its number and never on the order in which concurrent callers draw.
+ */
+public final class SimulatedCommand {
+    private static final long INVOCATION_GAMMA = 0xBF58476D1CE4E5B9L;
+    private static final long BURST_SALT = 0x94D049BB133111EBL;
+
+    private final String name;
+    private final LatencyDistribution latency;
+    private final double failureRate;
+    private final double burstProbability;
+    private final int burstLength;
+    private final long seed;
+    private final long stream;
+    private final long burstStream;
+
+    private final AtomicLong invocations = new AtomicLong();
+
+    public SimulatedCommand(String name, LatencyDistribution latency, double failureRate,
+                            double burstProbability, int burstLength, long seed) {
+        if (failureRate < 0 || failureRate > 1 || burstProbability < 0 || burstProbability > 1) {
+            throw new IllegalArgumentException("Probabilities of simulated command '" + name + "' must be between 0 and 1");
+        }
+        if (burstProbability > 0 && burstLength < 1) {
+            throw new IllegalArgumentException("Burst length of simulated command '" + name + "' must be at least 1");
+        }
+        this.name = name;
+        this.latency = latency;
+        this.failureRate = failureRate;
+        this.burstProbability = burstProbability;
+        this.burstLength = burstLength;
+        this.seed = seed;
+        this.stream = seed ^ (name.hashCode() * 0x9E3779B97F4A7C15L);
+        this.burstStream = stream ^ BURST_SALT;
+    }
+
+    /**
+     * Model with the same behaviour for another command, with its own sequence of invocations
+     */
+    public SimulatedCommand forCommand(String command) {
+        return new SimulatedCommand(command, latency, failureRate, burstProbability, burstLength, seed);
+    }
+
+    /**
+     * Draw the latency and outcome of the next invocation
+     */
+    public Invocation next() {
+        long invocation = invocations.getAndIncrement();
+        SplittableRandom random = new SplittableRandom(stream + invocation * INVOCATION_GAMMA);
+        double latencyMs = latency.sampleMs(random);
+        boolean fails = random.nextDouble() < failureRate;
+
+        if (inBurst(invocation)) {
+            return new Invocation(latencyMs, false, true);
+        }
+        return new Invocation(latencyMs, !fails, false);
+    }
+
+    /**
+     * Whether the invocation or one of the burst-length minus one before it started a burst
+     */
+    private boolean inBurst(long invocation) {
+        if (burstProbability <= 0) {
+            return false;
+        }
+        for (long start = Math.max(0, invocation - burstLength + 1); start <= invocation; start++) {
+            if (new SplittableRandom(burstStream + start * INVOCATION_GAMMA).nextDouble() < burstProbability) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LatencyDistribution getLatency() {
+        return latency;
+    }
+
+    public double getFailureRate() {
+        return failureRate;
+    }
+
+    public double getBurstProbability() {
+        return burstProbability;
+    }
+
+    public int getBurstLength() {
+        return burstLength;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    @Override
+    public String toString() {
+        return "SimulatedCommand{" +
+                "name='" + name + '\'' +
+                ", latency=" + latency +
+                ", failureRate=" + failureRate +
+                ", burstProbability=" + burstProbability +
+                ", burstLength=" + burstLength +
+                '}';
+    }
+
+    /**
+     * Sampled behaviour of one invocation
+     */
+    public static final class Invocation {
+        private final double latencyMs;
+        private final boolean success;
+        private final boolean inBurst;
+
+        Invocation(double latencyMs, boolean success, boolean inBurst) {
+            this.latencyMs = latencyMs;
+            this.success = success;
+            this.inBurst = inBurst;
+        }
+
+        public double getLatencyMs() {
+            return latencyMs;
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        /**
+         * Whether the invocation failed as part of a failure burst
+         */
+        public boolean isInBurst() {
+            return inBurst;
+        }
+    }
+}
\ No newline at end of file
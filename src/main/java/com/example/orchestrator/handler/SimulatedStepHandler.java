@@ -0,0 +1,113 @@
+package com.example.orchestrator.handler;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fallback handler that simulates every command no other handler supports. Each command takes the
+ * latency and fails with the probability of its entry in the simulation profile; its future is completed
+ * from a timer once the latency has passed, so no thread is held while it runs and step timeouts and
+ * cancellation abandon it like a real command. Without a profile every command takes 100 ms and only
+ * "FAIL" fails. Latencies and outcomes are drawn from the configured seed, so a load test can be replayed
+ * exactly. No command is started once the request's deadline has passed.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class SimulatedStepHandler implements StepHandler {
+    private static final Logger logger = LoggerFactory.getLogger(SimulatedStepHandler.class);
+
+    @Value("${orchestrator.handlers.simulated.profile:}")
+    private String profileLocation;
+
+    @Value("${orchestrator.handlers.simulated.seed:}")
+    private String configuredSeed;
+
+    private SimulationProfile profile;
+
+    @PostConstruct
+    public void init() {
+        long seed = configuredSeed == null || configuredSeed.isBlank()
+                ? ThreadLocalRandom.current().nextLong()
+                : Long.parseLong(configuredSeed.trim());
+        if (profileLocation == null || profileLocation.isBlank()) {
+            profile = SimulationProfile.defaults(seed);
+            return;
+        }
+        profile = SimulationProfile.parse(loadProfile(profileLocation.trim()), seed);
+        logger.info("Simulating commands from profile '{}' with seed {}", profileLocation, seed);
+        profile.getEntries().forEach((name, command) -> logger.info("Simulated '{}': {}", name, command));
+    }
+
+    /**
+     * Read a profile from a file, or from the classpath if there is no such file
+     */
+    private static Map<String, Object> loadProfile(String location) {
+        Path file = Paths.get(location);
+        try (InputStream inputStream = Files.isRegularFile(file)
+                ? Files.newInputStream(file)
+                : new ClassPathResource(location).getInputStream()) {
+            Map<String, Object> data = new Yaml().load(inputStream);
+            return data != null ? data : Map.of();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load simulation profile: " + location, e);
+        }
+    }
+
+    @Override
+    public boolean supports(String command) {
+        return true;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> execute(StepRequest request) {
+        if (request.remainingMs() <= 0) {
+            logger.warn("Deadline of step '{}' has passed, not executing {}", request.getStepKey(), request.getCommand());
+            return CompletableFuture.completedFuture(false);
+        }
+        SimulatedCommand.Invocation invocation = profile.forCommand(request.getCommand()).next();
+        logger.debug("Executing command: {} with input: {}", request.getCommand(), request.getInput());
+
+        // Complete after the sampled latency from a timer, so no thread waits and cancelling abandons the command
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        long latencyNanos = (long) (invocation.getLatencyMs() * 1_000_000L);
+        CompletableFuture.delayedExecutor(latencyNanos, TimeUnit.NANOSECONDS)
+                .execute(() -> result.complete(outcome(invocation)));
+        return result;
+    }
+
+    /**
+     * Sampled outcome of a simulated command
+     */
+    private boolean outcome(SimulatedCommand.Invocation invocation) {
+        if (!invocation.isSuccess()) {
+            logger.warn("Command execution failed (simulated {})", invocation.isInBurst() ? "failure burst" : "failure");
+            return false;
+        }
+        logger.debug("Command executed successfully");
+        return true;
+    }
+
+    /**
+     * Profile the commands are simulated from
+     */
+    public SimulationProfile getProfile() {
+        return profile;
+    }
+}
\ No newline at end of file
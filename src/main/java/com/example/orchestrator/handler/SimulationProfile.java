@@ -0,0 +1,210 @@
+package com.example.orchestrator.handler;
+
+import com.example.orchestrator.plan.CommandTargets;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Latency and failure models of simulated commands, parsed from a YAML profile such as
+ * <pre>
+ * default:
+ *   latency: 100
+ * commands:
+ *   /payment:
+ *     latency: {distribution: lognormal, medianMs: 40, p99Ms: 400}
+ *     failureRate: 0.01
+ *     burst: {probability: 0.001, length: 20}
+ * </pre>
+ * Commands are matched by the full command, then by their command target, then fall back to the default.
+ * Settings an entry leaves out are taken from the default. Without a profile every command takes 100 ms
+ * and only {@code FAIL} fails. Every command gets its own sequence of invocations, seeded from the profile seed.
+ */
+public final class SimulationProfile {
+
+    /** Latency of commands when the profile does not set one */
+    public static final double DEFAULT_LATENCY_MS = 100;
+
+    /** Command that always fails unless the profile says otherwise */
+    public static final String FAIL_COMMAND = "FAIL";
+
+    private final long seed;
+    private final SimulatedCommand defaults;
+    private final Map<String, SimulatedCommand> entries;
+    private final ConcurrentMap<String, SimulatedCommand> commands = new ConcurrentHashMap<>();
+
+    private SimulationProfile(long seed, SimulatedCommand defaults, Map<String, SimulatedCommand> entries) {
+        this.seed = seed;
+        this.defaults = defaults;
+        this.entries = entries;
+    }
+
+    /**
+     * Profile of the built-in simulation: 100 ms for every command, failing only FAIL
+     */
+    public static SimulationProfile defaults(long seed) {
+        return parse(Map.of(), seed);
+    }
+
+    /**
+     * Parse a profile from YAML data
+     */
+    @SuppressWarnings("unchecked")
+    public static SimulationProfile parse(Map<String, Object> data, long seed) {
+        SimulatedCommand builtIn = new SimulatedCommand("default", LatencyDistribution.fixed(DEFAULT_LATENCY_MS),
+                0, 0, 0, seed);
+        Object defaultData = data.get("default");
+        if (defaultData != null && !(defaultData instanceof Map)) {
+            throw new IllegalArgumentException("Invalid simulation profile: 'default' should be a map");
+        }
+        SimulatedCommand defaults = defaultData != null
+                ? parseCommand("default", (Map<String, Object>) defaultData, builtIn)
+                : builtIn;
+
+        Map<String, SimulatedCommand> entries = new HashMap<>();
+        entries.put(FAIL_COMMAND, new SimulatedCommand(FAIL_COMMAND, defaults.getLatency(), 1, 0, 0, seed));
+
+        Object commandsData = data.get("commands");
+        if (commandsData != null && !(commandsData instanceof Map)) {
+            throw new IllegalArgumentException("Invalid simulation profile: 'commands' should be a map");
+        }
+        if (commandsData != null) {
+            for (Map.Entry<String, Object> entry : ((Map<String, Object>) commandsData).entrySet()) {
+                if (!(entry.getValue() instanceof Map)) {
+                    throw new IllegalArgumentException("Invalid simulation profile entry: " + entry.getKey());
+                }
+                String name = String.valueOf(entry.getKey()).trim();
+                entries.put(name, parseCommand(name, (Map<String, Object>) entry.getValue(), defaults));
+            }
+        }
+        return new SimulationProfile(seed, defaults, Map.copyOf(entries));
+    }
+
+    /**
+     * Model of a command, created on first use from the entry it matches
+     */
+    public SimulatedCommand forCommand(String command) {
+        SimulatedCommand simulated = commands.get(command);
+        if (simulated == null) {
+            simulated = commands.computeIfAbsent(command, name -> match(name).forCommand(name));
+        }
+        return simulated;
+    }
+
+    private SimulatedCommand match(String command) {
+        String trimmed = command.trim();
+        SimulatedCommand entry = entries.get(trimmed);
+        if (entry == null) {
+            entry = entries.get(CommandTargets.of(trimmed));
+        }
+        return entry != null ? entry : defaults;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Entries of the profile by command or target, including the default
+     */
+    public Map<String, SimulatedCommand> getEntries() {
+        Map<String, SimulatedCommand> all = new TreeMap<>(entries);
+        all.put("default", defaults);
+        return all;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SimulatedCommand parseCommand(String name, Map<String, Object> data, SimulatedCommand base) {
+        LatencyDistribution latency = data.containsKey("latency")
+                ? parseLatency(name, data.get("latency"))
+                : base.getLatency();
+        double failureRate = data.containsKey("failureRate")
+                ? number(name, "failureRate", data.get("failureRate"))
+                : base.getFailureRate();
+
+        double burstProbability = base.getBurstProbability();
+        int burstLength = base.getBurstLength();
+        Object burstData = data.get("burst");
+        if (burstData instanceof Map) {
+            Map<String, Object> burst = (Map<String, Object>) burstData;
+            burstProbability = number(name, "burst probability", burst.get("probability"));
+            burstLength = (int) number(name, "burst length", burst.get("length"));
+        } else if (burstData != null) {
+            throw new IllegalArgumentException("Invalid burst for simulated command '" + name + "': " + burstData);
+        }
+        return new SimulatedCommand(name, latency, failureRate, burstProbability, burstLength, base.getSeed());
+    }
+
+    /**
+     * Parse a latency given as a number of milliseconds, or as a map naming its distribution
+     */
+    @SuppressWarnings("unchecked")
+    private static LatencyDistribution parseLatency(String name, Object latencyData) {
+        if (latencyData instanceof Number) {
+            return LatencyDistribution.fixed(((Number) latencyData).doubleValue());
+        }
+        if (!(latencyData instanceof Map)) {
+            throw new IllegalArgumentException("Invalid latency for simulated command '" + name + "': " + latencyData);
+        }
+        Map<String, Object> latency = (Map<String, Object>) latencyData;
+        String distribution = String.valueOf(latency.getOrDefault("distribution", "fixed"));
+        switch (distribution) {
+            case "fixed":
+                return LatencyDistribution.fixed(number(name, "latencyMs", latency.get("latencyMs")));
+            case "uniform":
+                return LatencyDistribution.uniform(number(name, "minMs", latency.get("minMs")),
+                        number(name, "maxMs", latency.get("maxMs")));
+            case "lognormal":
+                return LatencyDistribution.logNormal(number(name, "medianMs", latency.get("medianMs")),
+                        number(name, "p99Ms", latency.get("p99Ms")),
+                        latency.containsKey("maxMs") ? number(name, "maxMs", latency.get("maxMs")) : 0);
+            case "histogram":
+                return parseHistogram(name, latency);
+            default:
+                throw new IllegalArgumentException("Unknown latency distribution for simulated command '" + name
+                        + "': " + distribution);
+        }
+    }
+
+    /**
+     * Parse histogram buckets given as a map of upper bound in milliseconds to weight
+     */
+    private static LatencyDistribution parseHistogram(String name, Map<String, Object> latency) {
+        Object bucketsData = latency.get("buckets");
+        if (!(bucketsData instanceof Map)) {
+            throw new IllegalArgumentException("Latency histogram of simulated command '" + name + "' needs buckets");
+        }
+        TreeMap<Double, Double> buckets = new TreeMap<>();
+        for (Map.Entry<?, ?> bucket : ((Map<?, ?>) bucketsData).entrySet()) {
+            buckets.put(number(name, "bucket bound", bucket.getKey()), number(name, "bucket weight", bucket.getValue()));
+        }
+        List<Double> bounds = new ArrayList<>(buckets.keySet());
+        double[] upperBoundsMs = new double[bounds.size()];
+        double[] weights = new double[bounds.size()];
+        for (int i = 0; i < upperBoundsMs.length; i++) {
+            upperBoundsMs[i] = bounds.get(i);
+            weights[i] = buckets.get(bounds.get(i));
+        }
+        double minMs = latency.containsKey("minMs") ? number(name, "minMs", latency.get("minMs")) : 0;
+        return LatencyDistribution.histogram(minMs, upperBoundsMs, weights);
+    }
+
+    private static double number(String name, String field, Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        if (value instanceof String) {
+            try {
+                return Double.parseDouble((String) value);
+            } catch (NumberFormatException e) {
+                // Reported below
+            }
+        }
+        throw new IllegalArgumentException("Invalid " + field + " for simulated command '" + name + "': " + value);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.example.orchestrator.handler;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Executes the commands of steps and their compensations. Handlers are Spring beans, consulted in
+ * {@link org.springframework.core.annotation.Order} order; the first one that supports a command runs it.
+ */
+public interface StepHandler {
+
+    /**
+     * Check if this handler executes the command, e.g. by its verb or URL scheme
+     */
+    boolean supports(String command);
+
+    /**
+     * Start executing a command. The future completes with true on success and false on failure;
+     * completing exceptionally also counts as a failure. Cancelling the future should abort the command
+     * where possible. Handlers should not block the calling thread for the duration of the command.
+     */
+    CompletableFuture<Boolean> execute(StepRequest request);
+}
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.example.orchestrator.handler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Routes commands to the first step handler that supports them. The route of each distinct
+ * command is resolved once and cached.
+ */
+@Component
+public class StepHandlerRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(StepHandlerRegistry.class);
+
+    @Autowired
+    private List<StepHandler> handlers;
+
+    private final ConcurrentMap<String, StepHandler> routes = new ConcurrentHashMap<>();
+
+    /**
+     * Handler of a command
+     */
+    public StepHandler handlerFor(String command) {
+        StepHandler handler = routes.get(command);
+        if (handler == null) {
+            handler = routes.computeIfAbsent(command, this::resolve);
+        }
+        return handler;
+    }
+
+    private StepHandler resolve(String command) {
+        for (StepHandler handler : handlers) {
+            if (handler.supports(command)) {
+                logger.debug("Routing command '{}' to {}", command, handler.getClass().getSimpleName());
+                return handler;
+            }
+        }
+        throw new IllegalArgumentException("No step handler supports command: " + command);
+    }
+}
\ No newline at end of file
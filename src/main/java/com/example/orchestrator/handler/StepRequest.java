@@ -0,0 +1,95 @@
+package com.example.orchestrator.handler;
+
+/**
+ * A command to execute for one attempt of a step, or for its compensation, with the time it may take.
+ * Handlers should not start work they cannot finish before the deadline; the executor cancels
+ * the returned future once it has passed.
+ */
+public final class StepRequest {
+    private final String executionId;
+    private final String stepKey;
+    private final String command;
+    private final String input;
+    private final int attempt;
+    private final boolean compensation;
+    private final long timeoutMs;
+    private final long deadlineNanos;
+
+    public StepRequest(String executionId, String stepKey, String command, String input, int attempt, boolean compensation) {
+        this(executionId, stepKey, command, input, attempt, compensation, 0);
+    }
+
+    /**
+     * Request that has to complete within the given time from now; 0 for no limit
+     */
+    public StepRequest(String executionId, String stepKey, String command, String input, int attempt, boolean compensation,
+                       long timeoutMs) {
+        this.executionId = executionId;
+        this.stepKey = stepKey;
+        this.command = command;
+        this.input = input;
+        this.attempt = attempt;
+        this.compensation = compensation;
+        this.timeoutMs = Math.max(0, timeoutMs);
+        this.deadlineNanos = System.nanoTime() + this.timeoutMs * 1_000_000L;
+    }
+
+    public String getExecutionId() {
+        return executionId;
+    }
+
+    /**
+     * State store key of the step, task/step
+     */
+    public String getStepKey() {
+        return stepKey;
+    }
+
+    public String getCommand() {
+        return command;
+    }
+
+    public String getInput() {
+        return input;
+    }
+
+    /**
+     * Attempt number, 0 for the first attempt
+     */
+    public int getAttempt() {
+        return attempt;
+    }
+
+    /**
+     * Whether the command compensates the step rather than executing it
+     */
+    public boolean isCompensation() {
+        return compensation;
+    }
+
+    public boolean hasDeadline() {
+        return timeoutMs > 0;
+    }
+
+    /**
+     * Time left until the deadline, 0 or negative once it has passed, or Long.MAX_VALUE without a deadline
+     */
+    public long remainingMs() {
+        if (timeoutMs == 0) {
+            return Long.MAX_VALUE;
+        }
+        return Math.floorDiv(deadlineNanos - System.nanoTime(), 1_000_000L);
+    }
+
+    @Override
+    public String toString() {
+        return "StepRequest{" +
+                "executionId='" + executionId + '\'' +
+                ", stepKey='" + stepKey + '\'' +
+                ", command='" + command + '\'' +
+                ", attempt=" + attempt +
+                ", compensation=" + compensation +
+                ", timeoutMs=" + timeoutMs +
+                '}';
+    }
+}
\ No newline at end of file
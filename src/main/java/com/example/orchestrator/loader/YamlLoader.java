@@ -1,46 +1,181 @@
 package com.example.orchestrator.loader;
 
+import com.example.orchestrator.executor.BulkheadRegistry;
+import com.example.orchestrator.graph.WorkflowGraphs;
+import com.example.orchestrator.models.dto.BackoffStrategy;
+import com.example.orchestrator.models.dto.BulkheadDefinition;
 import com.example.orchestrator.models.dto.RetryPolicy;
 import com.example.orchestrator.models.dto.StepDefinition;
 import com.example.orchestrator.models.dto.TaskDefinition;
+import com.example.orchestrator.plan.ExecutionPlan;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Component;
 import org.yaml.snakeyaml.Yaml;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
- * YAML loader utility for loading workflow definitions
+ * YAML loader utility for loading workflow definitions.
+ * Parsed workflows are cached per file name together with a hash of their content, and shared read-only
+ * between executions. Files in the external workflow directory are re-checked on disk at most once per
+ * check interval and only re-parsed when their content changes. Classpath files are parsed once; they are
+ * only re-checked once per check interval, for a file overriding them in the external directory.
  */
 @Component
 public class YamlLoader {
     private static final Logger logger = LoggerFactory.getLogger(YamlLoader.class);
 
+    @Autowired
+    private BulkheadRegistry bulkheadRegistry;
+
+    @Value("${orchestrator.workflows.directory:}")
+    private String workflowDirectory;
+
+    @Value("${orchestrator.workflows.check-interval-ms:1000}")
+    private long checkIntervalMs;
+
+    @Value("${orchestrator.saga.deadline-ms:0}")
+    private long defaultDeadlineMs;
+
+    private final ConcurrentMap<String, CachedWorkflow> cache = new ConcurrentHashMap<>();
+
     /**
-     * Load tasks from YAML file
+     * Load tasks from YAML file. The returned definitions are shared and must not be modified.
      */
     public List<TaskDefinition> loadTasks(String yamlFileName) {
-        logger.info("Loading tasks from YAML file: {}", yamlFileName);
-        
+        CachedWorkflow cached = cache.get(yamlFileName);
+        if (cached != null && !cached.needsCheck(System.currentTimeMillis(), checkIntervalMs)) {
+            return cached.tasks;
+        }
+        return reload(yamlFileName).tasks;
+    }
+
+    /**
+     * Load the compiled execution plan of a YAML file, shared by all executions of the workflow
+     */
+    public ExecutionPlan loadPlan(String yamlFileName) {
+        CachedWorkflow cached = cache.get(yamlFileName);
+        if (cached != null && !cached.needsCheck(System.currentTimeMillis(), checkIntervalMs)) {
+            return cached.plan;
+        }
+        return reload(yamlFileName).plan;
+    }
+
+    private CachedWorkflow reload(String yamlFileName) {
         try {
-            ClassPathResource resource = new ClassPathResource(yamlFileName);
-            try (InputStream inputStream = resource.getInputStream()) {
-                Yaml yaml = new Yaml();
-                Map<String, Object> data = yaml.load(inputStream);
-                
-                return parseTaskDefinitions(data);
-            }
+            return cache.compute(yamlFileName, this::refresh);
         } catch (Exception e) {
             logger.error("Failed to load YAML file: {}", yamlFileName, e);
             throw new RuntimeException("Failed to load YAML file: " + yamlFileName, e);
         }
     }
 
+    /**
+     * Drop the cached workflow for a file, forcing the next load to read and parse it
+     */
+    public void invalidate(String yamlFileName) {
+        cache.remove(yamlFileName);
+    }
+
+    /**
+     * Drop all cached workflows
+     */
+    public void invalidateAll() {
+        cache.clear();
+    }
+
+    /**
+     * Re-validate or reload a cache entry
+     */
+    private CachedWorkflow refresh(String yamlFileName, CachedWorkflow current) {
+        long now = System.currentTimeMillis();
+        Path externalFile = resolveExternalFile(yamlFileName);
+        
+        try {
+            if (externalFile == null) {
+                if (current != null && !current.external) {
+                    return current.checkedAt(now);
+                }
+                ClassPathResource resource = new ClassPathResource(yamlFileName);
+                try (InputStream inputStream = resource.getInputStream()) {
+                    return load(yamlFileName, inputStream.readAllBytes(), current, false, 0L, 0L, now);
+                }
+            }
+            
+            long lastModified = Files.getLastModifiedTime(externalFile).toMillis();
+            long size = Files.size(externalFile);
+            if (current != null && current.external && current.lastModified == lastModified && current.size == size) {
+                return current.checkedAt(now);
+            }
+            return load(yamlFileName, Files.readAllBytes(externalFile), current, true, lastModified, size, now);
+            
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Parse the content unless it hashes the same as the cached entry
+     */
+    private CachedWorkflow load(String yamlFileName, byte[] content, CachedWorkflow current, boolean external,
+                                long lastModified, long size, long now) {
+        String contentHash = hash(content);
+        if (current != null && current.contentHash.equals(contentHash)) {
+            return new CachedWorkflow(current.tasks, current.plan, contentHash, external, lastModified, size, now);
+        }
+        
+        logger.info("Loading tasks from YAML file: {}", yamlFileName);
+        Yaml yaml = new Yaml();
+        Map<String, Object> data = yaml.load(new ByteArrayInputStream(content));
+        
+        List<TaskDefinition> tasks = parseTaskDefinitions(data);
+        List<BulkheadDefinition> bulkheads = parseBulkheadDefinitions(data);
+        ExecutionPlan plan = ExecutionPlan.compile(tasks, bulkheads, parseDeadlineMs(data));
+        bulkheadRegistry.declare(yamlFileName, bulkheads);
+        return new CachedWorkflow(tasks, plan, contentHash, external, lastModified, size, now);
+    }
+
+    /**
+     * Resolve a file in the external workflow directory, or null if it should come from the classpath
+     */
+    private Path resolveExternalFile(String yamlFileName) {
+        if (workflowDirectory == null || workflowDirectory.trim().isEmpty()) {
+            return null;
+        }
+        Path directory = Paths.get(workflowDirectory).toAbsolutePath().normalize();
+        Path file = directory.resolve(yamlFileName).normalize();
+        if (!file.startsWith(directory) || !Files.isRegularFile(file)) {
+            return null;
+        }
+        return file;
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
     /**
      * Parse task definitions from YAML data
      */
@@ -60,8 +195,60 @@ public class YamlLoader {
             tasks.add(task);
         }
         
+        // Reject unknown task dependencies and cycles at load time
+        WorkflowGraphs.forTasks(tasks);
+        
         logger.info("Loaded {} tasks from YAML", tasks.size());
-        return tasks;
+        return List.copyOf(tasks);
+    }
+
+    /**
+     * Parse the optional bulkhead definitions of a workflow
+     */
+    @SuppressWarnings("unchecked")
+    private List<BulkheadDefinition> parseBulkheadDefinitions(Map<String, Object> data) {
+        Object bulkheadsData = data.get("bulkheads");
+        if (bulkheadsData == null) {
+            return List.of();
+        }
+        if (!(bulkheadsData instanceof List)) {
+            throw new IllegalArgumentException("Invalid YAML format: 'bulkheads' should be a list");
+        }
+        
+        List<BulkheadDefinition> bulkheads = new ArrayList<>();
+        for (Map<String, Object> bulkheadData : (List<Map<String, Object>>) bulkheadsData) {
+            String name = (String) bulkheadData.get("name");
+            Integer maxConcurrent = (Integer) bulkheadData.get("maxConcurrent");
+            Integer maxQueue = (Integer) bulkheadData.get("maxQueue");
+            
+            if (name == null || maxConcurrent == null) {
+                throw new IllegalArgumentException("Bulkhead name and maxConcurrent are required");
+            }
+            if (maxConcurrent < 1 || (maxQueue != null && maxQueue < 0)) {
+                throw new IllegalArgumentException("Invalid limits for bulkhead: " + name);
+            }
+            
+            BulkheadDefinition bulkhead = new BulkheadDefinition(name, maxConcurrent, maxQueue != null ? maxQueue : 0);
+            bulkhead.setTargets(List.copyOf(parseNameList(bulkheadData.get("targets"))));
+            bulkheads.add(bulkhead);
+        }
+        
+        logger.info("Loaded {} bulkheads from YAML", bulkheads.size());
+        return List.copyOf(bulkheads);
+    }
+
+    /**
+     * Parse the deadline of the whole saga, falling back to the configured default; 0 for none
+     */
+    private long parseDeadlineMs(Map<String, Object> data) {
+        Object deadlineMs = data.get("deadlineMs");
+        if (deadlineMs == null) {
+            return Math.max(0, defaultDeadlineMs);
+        }
+        if (!(deadlineMs instanceof Number) || ((Number) deadlineMs).longValue() < 0) {
+            throw new IllegalArgumentException("Invalid deadlineMs: " + deadlineMs);
+        }
+        return ((Number) deadlineMs).longValue();
     }
 
     /**
@@ -86,6 +273,12 @@ public class YamlLoader {
             }
         }
         
+        task.setDependsOn(List.copyOf(parseNameList(taskData.get("dependsOn"))));
+        task.setSteps(List.copyOf(task.getSteps()));
+        
+        // Reject unknown step dependencies and cycles at load time
+        WorkflowGraphs.forSteps(task);
+        
         logger.debug("Parsed task '{}' with {} steps", taskName, task.getSteps().size());
         return task;
     }
@@ -115,12 +308,39 @@ public class YamlLoader {
             step.setRetryPolicy(retryPolicy);
         }
         
+        step.setDependsOn(List.copyOf(parseNameList(stepData.get("dependsOn"))));
+        step.setCompensateSequentially(Boolean.TRUE.equals(stepData.get("compensateSequentially")));
+        step.setBulkhead((String) stepData.get("bulkhead"));
+        
+        Object timeoutMs = stepData.get("timeoutMs");
+        if (timeoutMs != null) {
+            if (!(timeoutMs instanceof Number) || ((Number) timeoutMs).longValue() < 0) {
+                throw new IllegalArgumentException("Invalid timeoutMs for step '" + stepName + "': " + timeoutMs);
+            }
+            step.setTimeoutMs(((Number) timeoutMs).longValue());
+        }
+        
         logger.debug("Parsed step '{}'", stepName);
         return step;
     }
 
     /**
-     * Parse retry policy
+     * Parse a list of names given either as a YAML list or a single string
+     */
+    private List<String> parseNameList(Object namesData) {
+        List<String> names = new ArrayList<>();
+        if (namesData instanceof List) {
+            for (Object name : (List<?>) namesData) {
+                names.add(String.valueOf(name));
+            }
+        } else if (namesData instanceof String) {
+            names.add((String) namesData);
+        }
+        return names;
+    }
+
+    /**
+     * Parse retry policy, including its optional backoff strategy, multiplier and max delay
      */
     private RetryPolicy parseRetryPolicy(Map<String, Object> retryData) {
         Integer maxRetries = (Integer) retryData.get("maxRetries");
@@ -134,6 +354,62 @@ public class YamlLoader {
             retryDelayMs = 1000;
         }
         
-        return new RetryPolicy(maxRetries, retryDelayMs.longValue());
+        RetryPolicy retryPolicy = new RetryPolicy(maxRetries, retryDelayMs.longValue());
+        
+        Object backoff = retryData.get("backoff");
+        if (backoff != null) {
+            retryPolicy.setBackoff(BackoffStrategy.fromName(String.valueOf(backoff)));
+        }
+        
+        Object multiplier = retryData.get("multiplier");
+        if (multiplier instanceof Number) {
+            if (((Number) multiplier).doubleValue() < 1.0) {
+                throw new IllegalArgumentException("Retry multiplier must be at least 1: " + multiplier);
+            }
+            retryPolicy.setMultiplier(((Number) multiplier).doubleValue());
+        }
+        
+        Object maxDelayMs = retryData.get("maxDelayMs");
+        if (maxDelayMs instanceof Number) {
+            retryPolicy.setMaxDelayMs(((Number) maxDelayMs).longValue());
+        }
+        
+        return retryPolicy;
+    }
+
+    /**
+     * Parsed and compiled workflow with the content hash and file stamp it was parsed from
+     */
+    private static final class CachedWorkflow {
+        private final List<TaskDefinition> tasks;
+        private final ExecutionPlan plan;
+        private final String contentHash;
+        private final boolean external;
+        private final long lastModified;
+        private final long size;
+        private final long checkedAtMs;
+
+        CachedWorkflow(List<TaskDefinition> tasks, ExecutionPlan plan, String contentHash, boolean external,
+                       long lastModified, long size, long checkedAtMs) {
+            this.tasks = tasks;
+            this.plan = plan;
+            this.contentHash = contentHash;
+            this.external = external;
+            this.lastModified = lastModified;
+            this.size = size;
+            this.checkedAtMs = checkedAtMs;
+        }
+
+        CachedWorkflow checkedAt(long now) {
+            return new CachedWorkflow(tasks, plan, contentHash, external, lastModified, size, now);
+        }
+
+        /**
+         * External files are re-checked once the interval has passed; classpath files are also
+         * re-checked then, in case the file has since appeared in the external directory
+         */
+        boolean needsCheck(long now, long checkIntervalMs) {
+            return now - checkedAtMs >= checkIntervalMs;
+        }
     }
 }
\ No newline at end of file
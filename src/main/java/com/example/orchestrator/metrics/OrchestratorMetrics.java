@@ -0,0 +1,307 @@
+package com.example.orchestrator.metrics;
+
+import com.example.orchestrator.context.SagaContext;
+import com.example.orchestrator.executor.Bulkhead;
+import com.example.orchestrator.executor.BulkheadRegistry;
+import com.example.orchestrator.executor.CircuitBreaker;
+import com.example.orchestrator.executor.CircuitBreakerRegistry;
+import com.example.orchestrator.models.dto.TaskState;
+import com.example.orchestrator.plan.StepPlan;
+import com.example.orchestrator.store.StateListener;
+import com.example.orchestrator.store.StateStore;
+import com.example.orchestrator.store.StateTransition;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Micrometer instrumentation of sagas, steps, retries, compensation and the step executor.
+ * Meters are registered once per command and outcome and cached, so recording on the step path
+ * is a map lookup and a meter update, without allocating. Without a meter registry in the context,
+ * meters go to the global registry, which drops them unless a registry is added to it.
+ * Task and step state transitions are counted as a listener of the state store, off the step path.
+ * Circuit breakers and bulkheads get their gauges when their registry creates them.
+ */
+@Component
+public class OrchestratorMetrics implements StateListener {
+
+    /** Outcome of a single step attempt */
+    public enum AttemptOutcome {
+        SUCCESS,
+        FAILURE,
+        TIMEOUT
+    }
+
+    private static final Duration MIN_EXPECTED = Duration.ofMillis(1);
+    private static final Duration MAX_EXPECTED = Duration.ofMinutes(1);
+    private static final long EXECUTION_COUNTS_MAX_AGE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    @Autowired(required = false)
+    private MeterRegistry registry;
+
+    @Autowired
+    private StateStore stateStore;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    private BulkheadRegistry bulkheadRegistry;
+
+    @Autowired(required = false)
+    @Qualifier("stepExecutorService")
+    private ExecutorService stepExecutorService;
+
+    private final ConcurrentMap<String, StepMeters> stepMeters = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, CompensationMeters> compensationMeters = new ConcurrentHashMap<>();
+
+    private final Timer[] sagaDurations = new Timer[TaskState.values().length];
+
+    private final Counter[] appliedTransitions = new Counter[TaskState.values().length];
+
+    private final Counter[] rejectedTransitions = new Counter[TaskState.values().length];
+
+    private final AtomicInteger activeAttempts = new AtomicInteger();
+
+    private final ExecutionCounts executionCounts = new ExecutionCounts();
+
+    @PostConstruct
+    public void init() {
+        if (registry == null) {
+            registry = Metrics.globalRegistry;
+        }
+        for (TaskState state : TaskState.values()) {
+            Gauge.builder("saga.executions", executionCounts, counts -> counts.get(state))
+                    .description("Executions known to the state store, by status")
+                    .tags("status", state.name())
+                    .register(registry);
+            sagaDurations[state.ordinal()] = timer("saga.duration", "Duration of finished sagas, by final status")
+                    .tags("status", state.name())
+                    .register(registry);
+            appliedTransitions[state.ordinal()] = transitionCounter(state, "applied");
+            rejectedTransitions[state.ordinal()] = transitionCounter(state, "rejected");
+        }
+        Gauge.builder("saga.step.attempts.active", activeAttempts, AtomicInteger::get)
+                .description("Step attempts whose command is running")
+                .register(registry);
+        Gauge.builder("saga.state.transitions.dropped", stateStore, StateStore::getDroppedTransitionCount)
+                .description("Transitions not counted because the state listener queue was full")
+                .register(registry);
+        stateStore.addListener(this);
+        circuitBreakerRegistry.addListener(this::registerBreaker);
+        bulkheadRegistry.addListener(this::registerBulkhead);
+        if (stepExecutorService != null) {
+            new ExecutorServiceMetrics(stepExecutorService, "stepExecutorService", Tags.empty()).bindTo(registry);
+        }
+    }
+
+    /**
+     * Record a saga that finished with the given status
+     */
+    public void sagaFinished(SagaContext context, TaskState status) {
+        sagaDurations[status.ordinal()].record(context.elapsedNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Record a step that finished, after all its attempts
+     */
+    public void stepFinished(StepPlan step, boolean success, long durationNanos) {
+        StepMeters meters = stepMeters(step);
+        (success ? meters.succeeded : meters.failed).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Mark the command of an attempt as started; must be followed by {@link #attemptFinished}
+     */
+    public void attemptStarted() {
+        activeAttempts.incrementAndGet();
+    }
+
+    /**
+     * Record an attempt whose command has completed, timed out or was cancelled (null outcome)
+     */
+    public void attemptFinished(StepPlan step, AttemptOutcome outcome, long durationNanos) {
+        activeAttempts.decrementAndGet();
+        if (outcome != null) {
+            stepMeters(step).attempts[outcome.ordinal()].record(durationNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Record an attempt that was not run, rejected by a circuit breaker or the saga deadline
+     */
+    public void attemptRejected(StepPlan step) {
+        stepMeters(step).rejected.increment();
+    }
+
+    /**
+     * Record a retry attempt of a step being started
+     */
+    public void retryStarted(StepPlan step) {
+        stepMeters(step).retries.increment();
+    }
+
+    /**
+     * Record a compensation command that finished
+     */
+    public void compensationFinished(StepPlan step, boolean success, long durationNanos) {
+        CompensationMeters meters = compensationMeters.get(step.getCompensateCommand());
+        if (meters == null) {
+            meters = compensationMeters.computeIfAbsent(step.getCompensateCommand(), CompensationMeters::new);
+        }
+        (success ? meters.compensated : meters.failed).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Count task and step transitions by target state, delivered in batches by the state store
+     */
+    @Override
+    public void onTransitions(List<StateTransition> transitions) {
+        for (StateTransition transition : transitions) {
+            Counter[] counters = transition.isApplied() ? appliedTransitions : rejectedTransitions;
+            counters[transition.getTo().ordinal()].increment();
+        }
+    }
+
+    private void registerBreaker(CircuitBreaker breaker) {
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            Gauge.builder("saga.circuit.breaker.state", breaker, b -> b.getState() == state ? 1 : 0)
+                    .description("Whether the circuit breaker of a command target is in the given state")
+                    .tags("target", breaker.getTarget(), "state", tagValue(state))
+                    .register(registry);
+        }
+        FunctionCounter.builder("saga.circuit.breaker.rejected", breaker, CircuitBreaker::getRejectedCount)
+                .description("Attempts rejected by the circuit breaker of a command target")
+                .tags("target", breaker.getTarget())
+                .register(registry);
+    }
+
+    private void registerBulkhead(Bulkhead bulkhead) {
+        Gauge.builder("saga.bulkhead.active", bulkhead, Bulkhead::getActiveCount)
+                .description("Permits of a bulkhead currently held")
+                .tags("bulkhead", bulkhead.getName())
+                .register(registry);
+        Gauge.builder("saga.bulkhead.queue.depth", bulkhead, Bulkhead::getQueueDepth)
+                .description("Attempts waiting for a permit of a bulkhead")
+                .tags("bulkhead", bulkhead.getName())
+                .register(registry);
+        FunctionCounter.builder("saga.bulkhead.rejected", bulkhead, Bulkhead::getRejectedCount)
+                .description("Attempts rejected because the wait queue of a bulkhead was full")
+                .tags("bulkhead", bulkhead.getName())
+                .register(registry);
+    }
+
+    private Counter transitionCounter(TaskState state, String outcome) {
+        return Counter.builder("saga.state.transitions")
+                .description("Task and step state transitions, by target state and whether the transition table allowed them")
+                .tags("state", state.name(), "outcome", outcome)
+                .register(registry);
+    }
+
+    private StepMeters stepMeters(StepPlan step) {
+        StepMeters meters = stepMeters.get(step.getCommand());
+        if (meters == null) {
+            meters = stepMeters.computeIfAbsent(step.getCommand(), StepMeters::new);
+        }
+        return meters;
+    }
+
+    private static Timer.Builder timer(String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED)
+                .maximumExpectedValue(MAX_EXPECTED);
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Meters of the steps running one command
+     */
+    private final class StepMeters {
+        private final Timer succeeded;
+        private final Timer failed;
+        private final Timer[] attempts = new Timer[AttemptOutcome.values().length];
+        private final Counter rejected;
+        private final Counter retries;
+
+        StepMeters(String command) {
+            succeeded = timer("saga.step.duration", "Duration of steps including retries")
+                    .tags("command", command, "outcome", "success")
+                    .register(registry);
+            failed = timer("saga.step.duration", "Duration of steps including retries")
+                    .tags("command", command, "outcome", "failure")
+                    .register(registry);
+            for (AttemptOutcome outcome : AttemptOutcome.values()) {
+                attempts[outcome.ordinal()] = timer("saga.step.attempt.duration", "Duration of single step attempts")
+                        .tags("command", command, "outcome", tagValue(outcome))
+                        .register(registry);
+            }
+            rejected = Counter.builder("saga.step.attempts.rejected")
+                    .description("Step attempts not run, due to an open circuit breaker or the saga deadline")
+                    .tags("command", command)
+                    .register(registry);
+            retries = Counter.builder("saga.step.retries")
+                    .description("Retries of steps")
+                    .tags("command", command)
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Execution counts by status, taken in one pass over the state store and reused by the gauges of
+     * every status for up to a second, so a scrape scans the store once rather than once per status
+     */
+    private final class ExecutionCounts {
+        private long[] counts;
+        private long takenAtNanos;
+
+        synchronized long get(TaskState status) {
+            long now = System.nanoTime();
+            if (counts == null || now - takenAtNanos > EXECUTION_COUNTS_MAX_AGE_NANOS) {
+                counts = stateStore.countExecutionsByStatus();
+                takenAtNanos = now;
+            }
+            return counts[status.ordinal()];
+        }
+    }
+
+    /**
+     * Meters of one compensation command
+     */
+    private final class CompensationMeters {
+        private final Timer compensated;
+        private final Timer failed;
+
+        CompensationMeters(String command) {
+            compensated = timer("saga.compensation.duration", "Duration of compensation commands")
+                    .tags("command", command, "outcome", "compensated")
+                    .register(registry);
+            failed = timer("saga.compensation.duration", "Duration of compensation commands")
+                    .tags("command", command, "outcome", "failed")
+                    .register(registry);
+        }
+    }
+}
\ No newline at end of file
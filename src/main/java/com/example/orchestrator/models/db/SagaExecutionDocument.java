@@ -0,0 +1,143 @@
+package com.example.orchestrator.models.db;
+
+import com.example.orchestrator.models.dto.TaskState;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Persisted saga execution with the latest state of each task and step.
+ * The execution ID is the document ID, so lookups by execution use the _id index;
+ * the status/updated_at index serves queries for sagas stuck in a non-final status.
+ */
+@Document(collection = "saga_executions")
+@CompoundIndex(name = "status_updated_at", def = "{'status': 1, 'updated_at': 1}")
+public class SagaExecutionDocument {
+    
+    @Id
+    private String executionId;
+    
+    @Field("workflow_name")
+    private String workflowName;
+    
+    @Field("status")
+    private TaskState status;
+    
+    @Indexed(sparse = true)
+    @Field("idempotency_key")
+    private String idempotencyKey;
+    
+    @Field("callback_url")
+    private String callbackUrl;
+    
+    @Field("states")
+    private Map<String, TaskState> states;
+    
+    @Field("transitions")
+    private long transitions;
+    
+    @Field("created_at")
+    private LocalDateTime createdAt;
+    
+    @Indexed
+    @Field("updated_at")
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public SagaExecutionDocument() {}
+    
+    // Getters and Setters
+    public String getExecutionId() {
+        return executionId;
+    }
+    
+    public void setExecutionId(String executionId) {
+        this.executionId = executionId;
+    }
+    
+    public String getWorkflowName() {
+        return workflowName;
+    }
+    
+    public void setWorkflowName(String workflowName) {
+        this.workflowName = workflowName;
+    }
+    
+    public TaskState getStatus() {
+        return status;
+    }
+    
+    public void setStatus(TaskState status) {
+        this.status = status;
+    }
+    
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+    
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+    
+    public String getCallbackUrl() {
+        return callbackUrl;
+    }
+    
+    public void setCallbackUrl(String callbackUrl) {
+        this.callbackUrl = callbackUrl;
+    }
+    
+    /**
+     * Latest state per task name or task/step key, with field-name characters escaped
+     */
+    public Map<String, TaskState> getStates() {
+        return states;
+    }
+    
+    public void setStates(Map<String, TaskState> states) {
+        this.states = states;
+    }
+    
+    /**
+     * Number of state transitions written
+     */
+    public long getTransitions() {
+        return transitions;
+    }
+    
+    public void setTransitions(long transitions) {
+        this.transitions = transitions;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    @Override
+    public String toString() {
+        return "SagaExecutionDocument{" +
+                "executionId='" + executionId + '\'' +
+                ", workflowName='" + workflowName + '\'' +
+                ", status=" + status +
+                ", transitions=" + transitions +
+                ", updatedAt=" + updatedAt +
+                '}';
+    }
+}
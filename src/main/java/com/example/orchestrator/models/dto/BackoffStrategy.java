@@ -0,0 +1,26 @@
+package com.example.orchestrator.models.dto;
+
+/**
+ * How the delay between retry attempts of a step grows
+ */
+public enum BackoffStrategy {
+    /** The same delay before every retry */
+    FIXED,
+    /** The delay is multiplied by the multiplier after every retry, up to the max delay */
+    EXPONENTIAL,
+    /** A random delay between the base delay and three times the previous delay, up to the max delay */
+    DECORRELATED_JITTER;
+
+    /**
+     * Parse a strategy name as written in YAML, e.g. exponential or decorrelated-jitter
+     */
+    public static BackoffStrategy fromName(String name) {
+        String normalized = name.trim().toUpperCase().replace('-', '_');
+        for (BackoffStrategy strategy : values()) {
+            if (strategy.name().equals(normalized)) {
+                return strategy;
+            }
+        }
+        throw new IllegalArgumentException("Unknown backoff strategy: " + name);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,77 @@
+package com.example.orchestrator.models.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Definition of a bulkhead: a named concurrency limit with a bounded wait queue, applied to the steps
+ * that name it and to the steps whose command targets are listed
+ */
+public class BulkheadDefinition {
+    private String name;
+    private List<String> targets;
+    private int maxConcurrent;
+    private int maxQueue;
+
+    public BulkheadDefinition() {
+        this.targets = new ArrayList<>();
+    }
+
+    public BulkheadDefinition(String name, int maxConcurrent, int maxQueue) {
+        this.name = name;
+        this.targets = new ArrayList<>();
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueue = maxQueue;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Command targets whose steps go through the bulkhead, e.g. /email
+     */
+    public List<String> getTargets() {
+        return targets;
+    }
+
+    public void setTargets(List<String> targets) {
+        this.targets = targets != null ? targets : new ArrayList<>();
+    }
+
+    /**
+     * Step attempts allowed to run at the same time
+     */
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public void setMaxConcurrent(int maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    /**
+     * Step attempts allowed to wait for a slot; further attempts are rejected
+     */
+    public int getMaxQueue() {
+        return maxQueue;
+    }
+
+    public void setMaxQueue(int maxQueue) {
+        this.maxQueue = maxQueue;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkheadDefinition{" +
+                "name='" + name + '\'' +
+                ", targets=" + targets +
+                ", maxConcurrent=" + maxConcurrent +
+                ", maxQueue=" + maxQueue +
+                '}';
+    }
+}
\ No newline at end of file
@@ -6,6 +6,9 @@ package com.example.orchestrator.models.dto;
 public class RetryPolicy {
     private int maxRetries;
     private long retryDelayMs;
+    private BackoffStrategy backoff = BackoffStrategy.FIXED;
+    private double multiplier = 2.0;
+    private long maxDelayMs = 30000;
 
     public RetryPolicy() {
         this.maxRetries = 0;
@@ -30,6 +33,9 @@ public class RetryPolicy {
         this.maxRetries = maxRetries;
     }
 
+    /**
+     * Delay before the first retry, and the base delay of exponential and jittered backoff
+     */
     public long getRetryDelayMs() {
         return retryDelayMs;
     }
@@ -38,11 +44,44 @@ public class RetryPolicy {
         this.retryDelayMs = retryDelayMs;
     }
 
+    public BackoffStrategy getBackoff() {
+        return backoff;
+    }
+
+    public void setBackoff(BackoffStrategy backoff) {
+        this.backoff = backoff;
+    }
+
+    /**
+     * Growth factor of exponential backoff
+     */
+    public double getMultiplier() {
+        return multiplier;
+    }
+
+    public void setMultiplier(double multiplier) {
+        this.multiplier = multiplier;
+    }
+
+    /**
+     * Upper bound of exponential and jittered delays
+     */
+    public long getMaxDelayMs() {
+        return maxDelayMs;
+    }
+
+    public void setMaxDelayMs(long maxDelayMs) {
+        this.maxDelayMs = maxDelayMs;
+    }
+
     @Override
     public String toString() {
         return "RetryPolicy{" +
                 "maxRetries=" + maxRetries +
                 ", retryDelayMs=" + retryDelayMs +
+                ", backoff=" + backoff +
+                ", multiplier=" + multiplier +
+                ", maxDelayMs=" + maxDelayMs +
                 '}';
     }
 }
\ No newline at end of file
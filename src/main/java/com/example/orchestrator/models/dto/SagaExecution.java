@@ -0,0 +1,103 @@
+package com.example.orchestrator.models.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Status of a submitted saga execution
+ */
+public class SagaExecution {
+    private String executionId;
+    private String yamlFile;
+    private String callbackUrl;
+    private volatile TaskState status;
+    private volatile String message;
+    private LocalDateTime submittedAt;
+    private volatile LocalDateTime completedAt;
+
+    public SagaExecution() {
+        this.status = TaskState.NOT_STARTED;
+    }
+
+    public SagaExecution(String executionId, String yamlFile, String callbackUrl) {
+        this.executionId = executionId;
+        this.yamlFile = yamlFile;
+        this.callbackUrl = callbackUrl;
+        this.status = TaskState.NOT_STARTED;
+        this.submittedAt = LocalDateTime.now();
+    }
+
+    public String getExecutionId() {
+        return executionId;
+    }
+
+    public void setExecutionId(String executionId) {
+        this.executionId = executionId;
+    }
+
+    public String getYamlFile() {
+        return yamlFile;
+    }
+
+    public void setYamlFile(String yamlFile) {
+        this.yamlFile = yamlFile;
+    }
+
+    public String getCallbackUrl() {
+        return callbackUrl;
+    }
+
+    public void setCallbackUrl(String callbackUrl) {
+        this.callbackUrl = callbackUrl;
+    }
+
+    public TaskState getStatus() {
+        return status;
+    }
+
+    public void setStatus(TaskState status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(LocalDateTime submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public boolean isFinished() {
+        return status == TaskState.COMPLETED || status == TaskState.COMPENSATED || status == TaskState.FAILED;
+    }
+
+    public boolean hasCallback() {
+        return callbackUrl != null && !callbackUrl.trim().isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "SagaExecution{" +
+                "executionId='" + executionId + '\'' +
+                ", yamlFile='" + yamlFile + '\'' +
+                ", status=" + status +
+                ", submittedAt=" + submittedAt +
+                ", completedAt=" + completedAt +
+                '}';
+    }
+}
\ No newline at end of file
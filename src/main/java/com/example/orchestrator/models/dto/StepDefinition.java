@@ -1,5 +1,8 @@
 package com.example.orchestrator.models.dto;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Definition of a single step in a task workflow
  */
@@ -9,9 +12,14 @@ public class StepDefinition {
     private String input;
     private String compensateCommand;
     private RetryPolicy retryPolicy;
+    private List<String> dependsOn;
+    private boolean compensateSequentially;
+    private String bulkhead;
+    private long timeoutMs;
 
     public StepDefinition() {
         this.retryPolicy = new RetryPolicy();
+        this.dependsOn = new ArrayList<>();
     }
 
     public StepDefinition(String name, String command, String input) {
@@ -19,6 +27,7 @@ public class StepDefinition {
         this.command = command;
         this.input = input;
         this.retryPolicy = new RetryPolicy();
+        this.dependsOn = new ArrayList<>();
     }
 
     public String getName() {
@@ -61,6 +70,48 @@ public class StepDefinition {
         this.retryPolicy = retryPolicy != null ? retryPolicy : new RetryPolicy();
     }
 
+    public List<String> getDependsOn() {
+        return dependsOn;
+    }
+
+    public void setDependsOn(List<String> dependsOn) {
+        this.dependsOn = dependsOn != null ? dependsOn : new ArrayList<>();
+    }
+
+    public boolean hasDependencies() {
+        return dependsOn != null && !dependsOn.isEmpty();
+    }
+
+    public boolean isCompensateSequentially() {
+        return compensateSequentially;
+    }
+
+    public void setCompensateSequentially(boolean compensateSequentially) {
+        this.compensateSequentially = compensateSequentially;
+    }
+
+    /**
+     * Name of the bulkhead the step runs in, or null to select it by command target
+     */
+    public String getBulkhead() {
+        return bulkhead;
+    }
+
+    public void setBulkhead(String bulkhead) {
+        this.bulkhead = bulkhead;
+    }
+
+    /**
+     * Time an attempt of the step may take before it is cancelled, 0 for no limit
+     */
+    public long getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    public void setTimeoutMs(long timeoutMs) {
+        this.timeoutMs = timeoutMs;
+    }
+
     public boolean hasCompensation() {
         return compensateCommand != null && !compensateCommand.trim().isEmpty();
     }
@@ -73,6 +124,10 @@ public class StepDefinition {
                 ", input='" + input + '\'' +
                 ", compensateCommand='" + compensateCommand + '\'' +
                 ", retryPolicy=" + retryPolicy +
+                ", dependsOn=" + dependsOn +
+                ", compensateSequentially=" + compensateSequentially +
+                ", bulkhead='" + bulkhead + '\'' +
+                ", timeoutMs=" + timeoutMs +
                 '}';
     }
 }
\ No newline at end of file
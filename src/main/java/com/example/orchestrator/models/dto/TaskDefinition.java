@@ -9,19 +9,23 @@ import java.util.List;
 public class TaskDefinition {
     private String name;
     private List<StepDefinition> steps;
+    private List<String> dependsOn;
 
     public TaskDefinition() {
         this.steps = new ArrayList<>();
+        this.dependsOn = new ArrayList<>();
     }
 
     public TaskDefinition(String name) {
         this.name = name;
         this.steps = new ArrayList<>();
+        this.dependsOn = new ArrayList<>();
     }
 
     public TaskDefinition(String name, List<StepDefinition> steps) {
         this.name = name;
         this.steps = steps != null ? steps : new ArrayList<>();
+        this.dependsOn = new ArrayList<>();
     }
 
     public String getName() {
@@ -46,6 +50,18 @@ public class TaskDefinition {
         }
     }
 
+    public List<String> getDependsOn() {
+        return dependsOn;
+    }
+
+    public void setDependsOn(List<String> dependsOn) {
+        this.dependsOn = dependsOn != null ? dependsOn : new ArrayList<>();
+    }
+
+    public boolean hasDependencies() {
+        return dependsOn != null && !dependsOn.isEmpty();
+    }
+
     public boolean hasSteps() {
         return steps != null && !steps.isEmpty();
     }
@@ -55,6 +71,7 @@ public class TaskDefinition {
         return "TaskDefinition{" +
                 "name='" + name + '\'' +
                 ", steps=" + steps +
+                ", dependsOn=" + dependsOn +
                 '}';
     }
 }
\ No newline at end of file
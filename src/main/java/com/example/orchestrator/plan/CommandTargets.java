@@ -0,0 +1,50 @@
+package com.example.orchestrator.plan;
+
+import java.net.URI;
+
+/**
+ * Derives the target a step command is sent to, used to share retry budgets between the steps
+ * that call the same downstream service. For a command of the form {@code VERB resource},
+ * an absolute URI resource targets its scheme and authority, and a path targets its first segment,
+ * so {@code POST /database} and {@code POST /database/rollback} share the target {@code /database}.
+ */
+public final class CommandTargets {
+
+    private CommandTargets() {
+    }
+
+    /**
+     * Target of a command, or the empty string for a missing command
+     */
+    public static String of(String command) {
+        if (command == null) {
+            return "";
+        }
+        String trimmed = command.trim();
+        int space = trimmed.indexOf(' ');
+        String resource = space < 0 ? trimmed : trimmed.substring(space + 1).trim();
+
+        int schemeEnd = resource.indexOf("://");
+        if (schemeEnd > 0) {
+            try {
+                URI uri = URI.create(resource);
+                if (uri.getAuthority() != null) {
+                    return uri.getScheme() + "://" + uri.getAuthority();
+                }
+            } catch (IllegalArgumentException e) {
+                // Not a valid URI, fall through to the path rule
+            }
+        }
+
+        if (resource.startsWith("/")) {
+            int next = resource.indexOf('/', 1);
+            int query = resource.indexOf('?');
+            int end = next < 0 ? resource.length() : next;
+            if (query > 0 && query < end) {
+                end = query;
+            }
+            return resource.substring(0, end);
+        }
+        return resource;
+    }
+}
\ No newline at end of file
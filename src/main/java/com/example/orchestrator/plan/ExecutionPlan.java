@@ -0,0 +1,144 @@
+package com.example.orchestrator.plan;
+
+import com.example.orchestrator.graph.DependencyGraph;
+import com.example.orchestrator.graph.WorkflowGraphs;
+import com.example.orchestrator.models.dto.BulkheadDefinition;
+import com.example.orchestrator.models.dto.StepDefinition;
+import com.example.orchestrator.models.dto.TaskDefinition;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Immutable, array-backed execution plan compiled from a loaded workflow.
+ * Tasks and steps are addressed by int index, graphs and orders are computed once,
+ * so executions of the same workflow share one plan and do no per-run list copying.
+ */
+public final class ExecutionPlan {
+    private final TaskPlan[] tasks;
+    private final DependencyGraph taskGraph;
+    private final int[] executionOrder;
+    private final List<BulkheadDefinition> bulkheads;
+    private final long deadlineMs;
+
+    private ExecutionPlan(List<TaskDefinition> tasks, List<BulkheadDefinition> bulkheads, long deadlineMs) {
+        Function<StepDefinition, BulkheadDefinition> bulkheadResolver = bulkheadResolver(bulkheads);
+        this.taskGraph = WorkflowGraphs.forTasks(tasks);
+        this.executionOrder = taskGraph.topologicalOrder();
+        this.tasks = new TaskPlan[tasks.size()];
+        // Dependents first, so each task knows the longest chain of steps still to run after it
+        for (int position = executionOrder.length - 1; position >= 0; position--) {
+            int index = executionOrder[position];
+            int stepsAfter = 0;
+            for (int dependent : taskGraph.dependents(index)) {
+                TaskPlan dependentTask = this.tasks[dependent];
+                stepsAfter = Math.max(stepsAfter, dependentTask.criticalPathLength() + dependentTask.getStepsAfter());
+            }
+            this.tasks[index] = new TaskPlan(index, tasks.get(index), bulkheadResolver, stepsAfter);
+        }
+        this.bulkheads = List.copyOf(bulkheads);
+        this.deadlineMs = deadlineMs;
+    }
+
+    /**
+     * Compile task definitions into a plan; fails on unknown dependencies or cycles
+     */
+    public static ExecutionPlan compile(List<TaskDefinition> tasks) {
+        return new ExecutionPlan(tasks, List.of(), 0);
+    }
+
+    /**
+     * Compile task definitions and the bulkheads their steps run in into a plan;
+     * also fails on steps naming an undeclared bulkhead
+     */
+    public static ExecutionPlan compile(List<TaskDefinition> tasks, List<BulkheadDefinition> bulkheads) {
+        return new ExecutionPlan(tasks, bulkheads, 0);
+    }
+
+    /**
+     * Compile task definitions, their bulkheads and the deadline of the whole saga (0 for none) into a plan
+     */
+    public static ExecutionPlan compile(List<TaskDefinition> tasks, List<BulkheadDefinition> bulkheads, long deadlineMs) {
+        return new ExecutionPlan(tasks, bulkheads, deadlineMs);
+    }
+
+    /**
+     * Resolve the bulkhead of a step: the one it names, else the one listing its command target
+     */
+    private static Function<StepDefinition, BulkheadDefinition> bulkheadResolver(List<BulkheadDefinition> bulkheads) {
+        Map<String, BulkheadDefinition> byName = new HashMap<>();
+        Map<String, BulkheadDefinition> byTarget = new HashMap<>();
+        for (BulkheadDefinition bulkhead : bulkheads) {
+            if (byName.put(bulkhead.getName(), bulkhead) != null) {
+                throw new IllegalArgumentException("Duplicate bulkhead: " + bulkhead.getName());
+            }
+            for (String target : bulkhead.getTargets()) {
+                BulkheadDefinition previous = byTarget.put(CommandTargets.of(target), bulkhead);
+                if (previous != null) {
+                    throw new IllegalArgumentException("Target '" + target + "' is in bulkheads '"
+                            + previous.getName() + "' and '" + bulkhead.getName() + "'");
+                }
+            }
+        }
+        return step -> {
+            if (step.getBulkhead() == null) {
+                return byTarget.get(CommandTargets.of(step.getCommand()));
+            }
+            BulkheadDefinition bulkhead = byName.get(step.getBulkhead());
+            if (bulkhead == null) {
+                throw new IllegalArgumentException("Step '" + step.getName() + "' uses unknown bulkhead: "
+                        + step.getBulkhead());
+            }
+            return bulkhead;
+        };
+    }
+
+    public int taskCount() {
+        return tasks.length;
+    }
+
+    public TaskPlan task(int index) {
+        return tasks[index];
+    }
+
+    /**
+     * Dependency graph of the tasks, indexed like the tasks
+     */
+    public DependencyGraph taskGraph() {
+        return taskGraph;
+    }
+
+    /**
+     * Index of the task executed at the given position when tasks run one after another
+     */
+    public int executionOrder(int position) {
+        return executionOrder[position];
+    }
+
+    /**
+     * Bulkheads declared by the workflow
+     */
+    public List<BulkheadDefinition> bulkheads() {
+        return bulkheads;
+    }
+
+    /**
+     * Time an execution of the plan may take, 0 for no deadline
+     */
+    public long deadlineMs() {
+        return deadlineMs;
+    }
+
+    /**
+     * Total number of steps across all tasks
+     */
+    public int stepCount() {
+        int count = 0;
+        for (TaskPlan task : tasks) {
+            count += task.stepCount();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.orchestrator.plan;
+
+import com.example.orchestrator.models.dto.BackoffStrategy;
+import com.example.orchestrator.models.dto.BulkheadDefinition;
+import com.example.orchestrator.models.dto.RetryPolicy;
+import com.example.orchestrator.models.dto.StepDefinition;
+import com.example.orchestrator.store.StateStore;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Immutable, compiled form of a step: its position in the task, its state key and its resolved retry policy
+ */
+public final class StepPlan {
+    private final String taskName;
+    private final int taskIndex;
+    private final int index;
+    private final String name;
+    private final String key;
+    private final String command;
+    private final String target;
+    private final String input;
+    private final String compensateCommand;
+    private final int maxRetries;
+    private final long retryDelayMs;
+    private final BackoffStrategy backoff;
+    private final double multiplier;
+    private final long maxDelayMs;
+    private final boolean compensateSequentially;
+    private final BulkheadDefinition bulkhead;
+    private final long timeoutMs;
+    private final int stepsAfter;
+
+    StepPlan(String taskName, int taskIndex, int index, StepDefinition step, BulkheadDefinition bulkhead, int stepsAfter) {
+        RetryPolicy retryPolicy = step.getRetryPolicy() != null ? step.getRetryPolicy() : new RetryPolicy();
+        this.taskName = taskName;
+        this.taskIndex = taskIndex;
+        this.index = index;
+        this.name = step.getName();
+        this.key = StateStore.stepKey(taskName, step.getName());
+        this.command = step.getCommand();
+        this.target = CommandTargets.of(step.getCommand());
+        this.input = step.getInput();
+        this.compensateCommand = step.getCompensateCommand();
+        this.maxRetries = Math.max(0, retryPolicy.getMaxRetries());
+        this.retryDelayMs = Math.max(0, retryPolicy.getRetryDelayMs());
+        this.backoff = retryPolicy.getBackoff() != null ? retryPolicy.getBackoff() : BackoffStrategy.FIXED;
+        this.multiplier = Math.max(1.0, retryPolicy.getMultiplier());
+        this.maxDelayMs = Math.max(retryDelayMs, retryPolicy.getMaxDelayMs());
+        this.compensateSequentially = step.isCompensateSequentially();
+        this.bulkhead = bulkhead;
+        this.timeoutMs = Math.max(0, step.getTimeoutMs());
+        this.stepsAfter = stepsAfter;
+    }
+
+    public String getTaskName() {
+        return taskName;
+    }
+
+    /**
+     * Index of the step's task within the workflow
+     */
+    public int getTaskIndex() {
+        return taskIndex;
+    }
+
+    /**
+     * Index of the step within its task
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * State store key of the step, task/step
+     */
+    public String getKey() {
+        return key;
+    }
+
+    public String getCommand() {
+        return command;
+    }
+
+    /**
+     * Downstream target of the command, see {@link CommandTargets}
+     */
+    public String getTarget() {
+        return target;
+    }
+
+    public String getInput() {
+        return input;
+    }
+
+    public String getCompensateCommand() {
+        return compensateCommand;
+    }
+
+    public boolean hasCompensation() {
+        return compensateCommand != null && !compensateCommand.trim().isEmpty();
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public long getRetryDelayMs() {
+        return retryDelayMs;
+    }
+
+    public BackoffStrategy getBackoff() {
+        return backoff;
+    }
+
+    /**
+     * Delay before the given retry (1 for the first), following the backoff strategy.
+     * Decorrelated jitter draws from the base delay up to three times the previous delay.
+     */
+    public long retryDelayMs(int retry, long previousDelayMs) {
+        switch (backoff) {
+            case EXPONENTIAL:
+                double delay = retryDelayMs * Math.pow(multiplier, Math.max(0, retry - 1));
+                return delay >= maxDelayMs ? maxDelayMs : (long) delay;
+            case DECORRELATED_JITTER:
+                long upper = Math.min(maxDelayMs, Math.max(retryDelayMs, previousDelayMs) * 3);
+                if (upper <= retryDelayMs) {
+                    return retryDelayMs;
+                }
+                return ThreadLocalRandom.current().nextLong(retryDelayMs, upper + 1);
+            default:
+                return retryDelayMs;
+        }
+    }
+
+    public boolean isCompensateSequentially() {
+        return compensateSequentially;
+    }
+
+    /**
+     * Bulkhead the step's attempts run in, or null if unrestricted
+     */
+    public BulkheadDefinition getBulkhead() {
+        return bulkhead;
+    }
+
+    /**
+     * Time an attempt may take before it is cancelled, 0 for no limit
+     */
+    public long getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    /**
+     * Number of steps on the longest dependency chain that still has to run after this step,
+     * within its task and in the tasks that depend on it
+     */
+    public int getStepsAfter() {
+        return stepsAfter;
+    }
+
+    @Override
+    public String toString() {
+        return "StepPlan{" + key + "}";
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.orchestrator.plan;
+
+import com.example.orchestrator.graph.DependencyGraph;
+import com.example.orchestrator.graph.WorkflowGraphs;
+import com.example.orchestrator.models.dto.BulkheadDefinition;
+import com.example.orchestrator.models.dto.StepDefinition;
+import com.example.orchestrator.models.dto.TaskDefinition;
+
+import java.util.function.Function;
+
+/**
+ * Immutable, compiled form of a task: its steps by index, their dependency graph,
+ * the order they execute in and the order they are compensated in
+ */
+public final class TaskPlan {
+    private final int index;
+    private final String name;
+    private final StepPlan[] steps;
+    private final DependencyGraph stepGraph;
+    private final int[] executionOrder;
+    private final int[] compensationOrder;
+    private final int stepsAfter;
+    private final int criticalPathLength;
+
+    TaskPlan(int index, TaskDefinition task, Function<StepDefinition, BulkheadDefinition> bulkheadResolver, int stepsAfter) {
+        this.index = index;
+        this.name = task.getName();
+        this.stepsAfter = stepsAfter;
+        this.stepGraph = WorkflowGraphs.forSteps(task);
+        this.steps = new StepPlan[task.getSteps().size()];
+        int longest = 0;
+        for (int i = 0; i < steps.length; i++) {
+            StepDefinition step = task.getSteps().get(i);
+            int chain = stepGraph.criticalPathLength(i);
+            longest = Math.max(longest, chain);
+            steps[i] = new StepPlan(name, index, i, step, bulkheadResolver.apply(step), chain - 1 + stepsAfter);
+        }
+        this.criticalPathLength = longest;
+        this.executionOrder = stepGraph.topologicalOrder();
+        this.compensationOrder = new int[executionOrder.length];
+        for (int i = 0; i < executionOrder.length; i++) {
+            compensationOrder[i] = executionOrder[executionOrder.length - 1 - i];
+        }
+    }
+
+    /**
+     * Index of the task within the workflow
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int stepCount() {
+        return steps.length;
+    }
+
+    public StepPlan step(int index) {
+        return steps[index];
+    }
+
+    /**
+     * Number of steps on the longest dependency chain within the task
+     */
+    public int criticalPathLength() {
+        return criticalPathLength;
+    }
+
+    /**
+     * Number of steps on the longest dependency chain of the tasks that depend on this one
+     */
+    public int getStepsAfter() {
+        return stepsAfter;
+    }
+
+    /**
+     * Dependency graph of the steps, indexed like the steps
+     */
+    public DependencyGraph stepGraph() {
+        return stepGraph;
+    }
+
+    /**
+     * Index of the step executed at the given position when steps run one after another
+     */
+    public int executionOrder(int position) {
+        return executionOrder[position];
+    }
+
+    /**
+     * Index of the step compensated at the given position when all steps have completed in execution order
+     */
+    public int compensationOrder(int position) {
+        return compensationOrder[position];
+    }
+
+    @Override
+    public String toString() {
+        return "TaskPlan{" + name + ", steps=" + steps.length + "}";
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.orchestrator.repositories;
+
+import com.example.orchestrator.models.db.SagaExecutionDocument;
+import com.example.orchestrator.models.dto.TaskState;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SagaExecutionRepository extends MongoRepository<SagaExecutionDocument, String> {
+    
+    /**
+     * Find executions by status
+     */
+    List<SagaExecutionDocument> findByStatus(TaskState status);
+    
+    /**
+     * Find executions in one of the given statuses that have not been updated since the given time
+     */
+    List<SagaExecutionDocument> findByStatusInAndUpdatedAtBefore(Collection<TaskState> statuses, LocalDateTime updatedBefore);
+    
+    /**
+     * Find the execution submitted with an idempotency key
+     */
+    Optional<SagaExecutionDocument> findByIdempotencyKey(String idempotencyKey);
+    
+    /**
+     * Count executions by status
+     */
+    long countByStatus(TaskState status);
+}
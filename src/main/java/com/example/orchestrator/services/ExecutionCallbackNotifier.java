@@ -0,0 +1,120 @@
+package com.example.orchestrator.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Posts execution results to client-supplied callback URLs without blocking the caller.
+ * Only http and https URLs to the hosts in orchestrator.callback.allowed-hosts are accepted, so a client
+ * cannot make the orchestrator post to arbitrary internal addresses; a host entry *.example.com allows
+ * every subdomain of example.com.
+ */
+@Service
+public class ExecutionCallbackNotifier {
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionCallbackNotifier.class);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${orchestrator.callback.timeout-ms:5000}")
+    private long timeoutMs;
+
+    @Value("${orchestrator.callback.allowed-hosts:}")
+    private String allowedHostList;
+
+    private final Set<String> allowedHosts = new HashSet<>();
+
+    private final List<String> allowedDomains = new ArrayList<>();
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @PostConstruct
+    public void init() {
+        for (String host : allowedHostList.split(",")) {
+            host = host.trim().toLowerCase(Locale.ROOT);
+            if (host.startsWith("*.")) {
+                allowedDomains.add(host.substring(1));
+            } else if (!host.isEmpty()) {
+                allowedHosts.add(host);
+            }
+        }
+    }
+
+    /**
+     * Check a callback URL before a submission is accepted
+     *
+     * @throws IllegalArgumentException if it is not an http or https URL to an allowed host
+     */
+    public void validate(String callbackUrl) {
+        URI uri;
+        try {
+            uri = new URI(callbackUrl);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Invalid callback URL: " + callbackUrl);
+        }
+        String scheme = uri.getScheme();
+        if (scheme == null || !(scheme.equalsIgnoreCase("http") || scheme.equalsIgnoreCase("https"))) {
+            throw new IllegalArgumentException("Callback URL must use http or https: " + callbackUrl);
+        }
+        String host = uri.getHost();
+        if (host == null || uri.getUserInfo() != null || !isAllowed(host.toLowerCase(Locale.ROOT))) {
+            throw new IllegalArgumentException("Callback host is not allowed: " + callbackUrl);
+        }
+    }
+
+    private boolean isAllowed(String host) {
+        if (allowedHosts.contains(host)) {
+            return true;
+        }
+        for (String domain : allowedDomains) {
+            if (host.endsWith(domain)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Send the payload as JSON to the callback URL; failures are logged and not retried
+     */
+    public void notify(String executionId, String callbackUrl, Map<String, Object> payload) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(callbackUrl))
+                    .timeout(Duration.ofMillis(timeoutMs))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(payload)))
+                    .build();
+
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (error != null) {
+                            logger.warn("[{}] Callback to {} failed: {}", executionId, callbackUrl, error.getMessage());
+                        } else {
+                            logger.info("[{}] Callback to {} returned {}", executionId, callbackUrl, response.statusCode());
+                        }
+                    });
+        } catch (Exception e) {
+            logger.warn("[{}] Callback to {} could not be sent: {}", executionId, callbackUrl, e.getMessage());
+        }
+    }
+}
\ No newline at end of file
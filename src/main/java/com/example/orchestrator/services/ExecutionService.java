@@ -0,0 +1,204 @@
+package com.example.orchestrator.services;
+
+import com.example.orchestrator.AsyncTaskOrchestrator;
+import com.example.orchestrator.context.SagaContext;
+import com.example.orchestrator.loader.YamlLoader;
+import com.example.orchestrator.models.dto.SagaExecution;
+import com.example.orchestrator.models.dto.TaskState;
+import com.example.orchestrator.plan.ExecutionPlan;
+import com.example.orchestrator.store.StateStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Submits sagas for background execution and tracks their status. Finished executions are forgotten
+ * once they have been finished for orchestrator.state.finished-ttl-seconds, checked on each submission;
+ * after that, and for executions submitted before a restart, the status comes from the state store.
+ * The callback URL is recorded in the state store, so an execution resumed by recovery still notifies it.
+ */
+@Service
+public class ExecutionService {
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionService.class);
+
+    @Autowired
+    private AsyncTaskOrchestrator asyncTaskOrchestrator;
+
+    @Autowired
+    private YamlLoader yamlLoader;
+
+    @Autowired
+    private StateStore stateStore;
+
+    @Autowired
+    private ExecutionCallbackNotifier callbackNotifier;
+
+    @Value("${orchestrator.state.finished-ttl-seconds:3600}")
+    private long finishedTtlSeconds;
+
+    private final ConcurrentMap<String, SagaExecution> executions = new ConcurrentHashMap<>();
+
+    /** Finished executions in finishing order, each with the time it may be forgotten */
+    private final Queue<Expiry> finished = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Load the workflow and start it without waiting for the saga to finish
+     */
+    public SagaExecution submit(String yamlFile, String callbackUrl) {
+        return submit(SagaContext.create(yamlFile), callbackUrl);
+    }
+
+    /**
+     * Load the workflow of a context and start it under the context's execution ID
+     *
+     * @throws IllegalArgumentException if the callback URL is not allowed
+     */
+    public SagaExecution submit(SagaContext context, String callbackUrl) {
+        if (callbackUrl != null) {
+            callbackNotifier.validate(callbackUrl);
+        }
+        String yamlFile = context.getWorkflowName();
+        ExecutionPlan plan = yamlLoader.loadPlan(yamlFile);
+        evictExpired(System.currentTimeMillis());
+
+        SagaExecution execution = new SagaExecution(context.getExecutionId(), yamlFile, callbackUrl);
+        executions.put(execution.getExecutionId(), execution);
+        if (execution.hasCallback()) {
+            stateStore.recordCallbackUrl(execution.getExecutionId(), callbackUrl);
+        }
+
+        execution.setStatus(TaskState.RUNNING);
+        logger.debug("[{}] Submitted execution of {}", execution.getExecutionId(), yamlFile);
+
+        track(execution, asyncTaskOrchestrator.submitTasks(context, plan));
+        return execution;
+    }
+
+    /**
+     * Track an execution that recovery resumed or is compensating under its original ID, so its status
+     * can be polled and its recorded callback URL is notified when it finishes
+     */
+    public SagaExecution resumed(String executionId, String yamlFile, CompletableFuture<Boolean> outcome) {
+        evictExpired(System.currentTimeMillis());
+
+        SagaExecution execution = new SagaExecution(executionId, yamlFile, stateStore.getCallbackUrl(executionId));
+        execution.setStatus(stateStore.getExecutionStatus(executionId));
+        executions.put(executionId, execution);
+        logger.debug("[{}] Tracking recovered execution of {}", executionId, yamlFile);
+
+        track(execution, outcome);
+        return execution;
+    }
+
+    /**
+     * Find an execution by its ID: a submitted one while it is tracked, otherwise one the state store
+     * still knows, with the status recorded there
+     */
+    public Optional<SagaExecution> findExecution(String executionId) {
+        SagaExecution execution = executions.get(executionId);
+        if (execution != null) {
+            return Optional.of(execution);
+        }
+        String workflowName = stateStore.getWorkflowName(executionId);
+        if (workflowName == null) {
+            return Optional.empty();
+        }
+        SagaExecution stored = new SagaExecution();
+        stored.setExecutionId(executionId);
+        stored.setYamlFile(workflowName);
+        stored.setCallbackUrl(stateStore.getCallbackUrl(executionId));
+        TaskState status = stateStore.getExecutionStatus(executionId);
+        stored.setStatus(status != null ? status : TaskState.RUNNING);
+        return Optional.of(stored);
+    }
+
+    /**
+     * Build the status view of an execution, including its task and step states
+     */
+    public Map<String, Object> describe(SagaExecution execution) {
+        Map<String, Object> view = new HashMap<>();
+        view.put("executionId", execution.getExecutionId());
+        view.put("yamlFile", execution.getYamlFile());
+        view.put("status", execution.getStatus());
+        view.put("submittedAt", execution.getSubmittedAt());
+        if (execution.getMessage() != null) {
+            view.put("message", execution.getMessage());
+        }
+        if (execution.getCompletedAt() != null) {
+            view.put("completedAt", execution.getCompletedAt());
+        }
+        if (execution.isFinished()) {
+            view.put("success", execution.getStatus() == TaskState.COMPLETED);
+        }
+        view.put("taskStates", stateStore.getExecutionStates(execution.getExecutionId()));
+        return view;
+    }
+
+    private void track(SagaExecution execution, CompletableFuture<Boolean> outcome) {
+        outcome.whenComplete((success, error) -> {
+            if (error != null) {
+                logger.error("[{}] Execution failed with exception", execution.getExecutionId(), error);
+                finish(execution, false, "Orchestration failed: " + error.getMessage());
+            } else {
+                finish(execution, success, success ? "All tasks completed successfully" : "Orchestration failed");
+            }
+        });
+    }
+
+    private void finish(SagaExecution execution, boolean success, String message) {
+        execution.setMessage(message);
+        execution.setCompletedAt(LocalDateTime.now());
+        execution.setStatus(success ? TaskState.COMPLETED : failedStatus(execution.getExecutionId()));
+        logger.debug("[{}] Execution finished with status {}", execution.getExecutionId(), execution.getStatus());
+
+        if (finishedTtlSeconds >= 0) {
+            finished.add(new Expiry(execution.getExecutionId(), System.currentTimeMillis() + finishedTtlSeconds * 1000));
+        }
+        if (execution.hasCallback()) {
+            callbackNotifier.notify(execution.getExecutionId(), execution.getCallbackUrl(), describe(execution));
+        }
+    }
+
+    /**
+     * Status of an unsuccessful saga as recorded by the state store: COMPENSATED if it was unwound
+     * cleanly, FAILED otherwise
+     */
+    private TaskState failedStatus(String executionId) {
+        TaskState status = stateStore.getExecutionStatus(executionId);
+        return status == TaskState.COMPENSATED ? TaskState.COMPENSATED : TaskState.FAILED;
+    }
+
+    private void evictExpired(long now) {
+        Expiry expiry;
+        while ((expiry = finished.peek()) != null && expiry.expiresAtMs <= now) {
+            if (finished.remove(expiry)) {
+                executions.remove(expiry.executionId);
+            }
+        }
+    }
+
+    /**
+     * Time a finished execution may be forgotten
+     */
+    private static final class Expiry {
+        private final String executionId;
+        private final long expiresAtMs;
+
+        Expiry(String executionId, long expiresAtMs) {
+            this.executionId = executionId;
+            this.expiresAtMs = expiresAtMs;
+        }
+    }
+}
\ No newline at end of file
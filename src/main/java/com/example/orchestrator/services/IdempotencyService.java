@@ -0,0 +1,157 @@
+package com.example.orchestrator.services;
+
+import com.example.orchestrator.store.StateStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Maps client idempotency keys to the execution they started, so a retried request returns the
+ * existing execution instead of starting a new saga. Recent keys are held in a bounded in-memory index,
+ * evicted oldest first once they expire or the index is full. The state store persists each key with its
+ * execution and keeps a finished execution for at least the same TTL, so a key evicted from the index, or
+ * lost in a restart, still maps to its execution. A key whose execution the store no longer knows, because
+ * it was cleared, counts as expired.
+ */
+@Service
+public class IdempotencyService {
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    @Autowired
+    private StateStore stateStore;
+
+    @Value("${orchestrator.idempotency.ttl-seconds:3600}")
+    private long ttlSeconds;
+
+    @Value("${orchestrator.idempotency.max-entries:100000}")
+    private int maxEntries;
+
+    private final ConcurrentMap<String, Entry> index = new ConcurrentHashMap<>();
+
+    /** Index entries in insertion order, which is also expiry order */
+    private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger queued = new AtomicInteger();
+
+    /**
+     * Claim a key for a new execution. Returns the ID of the execution that already holds the key,
+     * or empty if the key is now held by the given execution. A null key is never a duplicate.
+     */
+    public Optional<String> claim(String idempotencyKey, String executionId) {
+        if (idempotencyKey == null) {
+            return Optional.empty();
+        }
+        long now = System.currentTimeMillis();
+        Entry claimed = new Entry(idempotencyKey, executionId, now + ttlSeconds * 1000);
+
+        while (true) {
+            Entry current = index.get(idempotencyKey);
+            if (current != null && !current.isExpired(now) && isKnown(current)) {
+                logger.info("[{}] Duplicate request for idempotency key '{}'", current.executionId, idempotencyKey);
+                return Optional.of(current.executionId);
+            }
+
+            // Not in the index, or expired from it: the key still belongs to its execution while the store has it
+            String persisted = stateStore.findExecutionByIdempotencyKey(idempotencyKey);
+            Entry next = persisted != null ? Entry.recorded(idempotencyKey, persisted, claimed.expiresAtMs) : claimed;
+            boolean won = current == null
+                    ? index.putIfAbsent(idempotencyKey, next) == null
+                    : index.replace(idempotencyKey, current, next);
+            if (!won) {
+                continue;
+            }
+            track(next, now);
+
+            if (persisted != null) {
+                logger.info("[{}] Duplicate request for idempotency key '{}'", persisted, idempotencyKey);
+                return Optional.of(persisted);
+            }
+            try {
+                stateStore.recordIdempotencyKey(executionId, idempotencyKey);
+            } finally {
+                claimed.recorded.complete(null);
+            }
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Whether the store still knows the execution holding an entry, once the claim has recorded it there
+     */
+    private boolean isKnown(Entry entry) {
+        entry.recorded.join();
+        return stateStore.hasExecution(entry.executionId);
+    }
+
+    /**
+     * Give up a key claimed by an execution that could not be started, so the client can retry
+     */
+    public void release(String idempotencyKey, String executionId) {
+        if (idempotencyKey == null) {
+            return;
+        }
+        Entry current = index.get(idempotencyKey);
+        if (current != null && current.executionId.equals(executionId)) {
+            index.remove(idempotencyKey, current);
+            stateStore.clearExecution(executionId);
+            logger.info("[{}] Released idempotency key '{}'", executionId, idempotencyKey);
+        }
+    }
+
+    /**
+     * Number of keys held in the in-memory index
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Queue a new entry and evict from the head while it has expired or the index is over capacity.
+     * Each entry is queued and polled once, so eviction is amortized constant time.
+     */
+    private void track(Entry entry, long now) {
+        insertionOrder.add(entry);
+        queued.incrementAndGet();
+        Entry head;
+        while ((head = insertionOrder.peek()) != null && (head.isExpired(now) || queued.get() > maxEntries)) {
+            if (insertionOrder.remove(head)) {
+                queued.decrementAndGet();
+                index.remove(head.key, head);
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final String key;
+        private final String executionId;
+        private final long expiresAtMs;
+        /** Completes once the key has been recorded with its execution in the state store */
+        private final CompletableFuture<Void> recorded = new CompletableFuture<>();
+
+        Entry(String key, String executionId, long expiresAtMs) {
+            this.key = key;
+            this.executionId = executionId;
+            this.expiresAtMs = expiresAtMs;
+        }
+
+        static Entry recorded(String key, String executionId, long expiresAtMs) {
+            Entry entry = new Entry(key, executionId, expiresAtMs);
+            entry.recorded.complete(null);
+            return entry;
+        }
+
+        boolean isExpired(long now) {
+            return now >= expiresAtMs;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,224 @@
+package com.example.orchestrator.services;
+
+import com.example.orchestrator.AsyncTaskOrchestrator;
+import com.example.orchestrator.context.SagaContext;
+import com.example.orchestrator.executor.CompensationEngine;
+import com.example.orchestrator.loader.YamlLoader;
+import com.example.orchestrator.models.dto.TaskState;
+import com.example.orchestrator.plan.ExecutionPlan;
+import com.example.orchestrator.plan.TaskPlan;
+import com.example.orchestrator.store.StateStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Brings sagas left in flight by a previous run back to a consistent state on startup.
+ * A saga that had not failed is resumed from its last completed steps; a saga that had failed
+ * has its outstanding compensations driven to completion. Sagas are recovered concurrently,
+ * with a bounded number in flight.
+ */
+@Service
+public class SagaRecoveryService {
+    private static final Logger logger = LoggerFactory.getLogger(SagaRecoveryService.class);
+
+    /**
+     * What recovery does with an execution
+     */
+    public enum RecoveryAction {
+        NONE,
+        RESUME,
+        COMPENSATE
+    }
+
+    @Autowired
+    private StateStore stateStore;
+
+    @Autowired
+    private YamlLoader yamlLoader;
+
+    @Autowired
+    private AsyncTaskOrchestrator asyncTaskOrchestrator;
+
+    @Autowired
+    private CompensationEngine compensationEngine;
+
+    @Autowired
+    private ExecutionService executionService;
+
+    @Value("${orchestrator.recovery.enabled:true}")
+    private boolean enabled;
+
+    @Value("${orchestrator.recovery.max-concurrency:256}")
+    private int maxConcurrency;
+
+    /**
+     * Start recovery in the background once the application is ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        Thread thread = new Thread(this::recoverAll, "saga-recovery");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Recover every execution in the state store that was left in flight, blocking until all have finished
+     */
+    public void recoverAll() {
+        Set<String> executionIds = stateStore.getExecutionIds();
+        if (executionIds.isEmpty()) {
+            return;
+        }
+
+        long started = System.currentTimeMillis();
+        int permits = Math.max(1, maxConcurrency);
+        Semaphore inFlight = new Semaphore(permits);
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger compensated = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        logger.info("Checking {} executions for recovery", executionIds.size());
+        try {
+            for (String executionId : executionIds) {
+                inFlight.acquire();
+                CompletableFuture<Boolean> recovery;
+                try {
+                    recovery = recover(executionId);
+                } catch (RuntimeException e) {
+                    recovery = CompletableFuture.failedFuture(e);
+                }
+                if (recovery == null) {
+                    inFlight.release();
+                    continue;
+                }
+                recovery.whenComplete((success, error) -> {
+                    if (error != null) {
+                        failed.incrementAndGet();
+                        logger.error("[{}] Recovery failed", executionId, error);
+                    } else if (Boolean.TRUE.equals(success)) {
+                        completed.incrementAndGet();
+                    } else {
+                        compensated.incrementAndGet();
+                    }
+                    inFlight.release();
+                });
+            }
+            inFlight.acquire(permits);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Saga recovery interrupted");
+            return;
+        }
+
+        logger.info("Recovered {} executions in {} ms: {} completed, {} compensated, {} failed",
+                completed.get() + compensated.get() + failed.get(), System.currentTimeMillis() - started,
+                completed.get(), compensated.get(), failed.get());
+    }
+
+    /**
+     * Recover one execution; the future completes with true if the saga completed and false if it was
+     * compensated. Returns null if the execution needs no recovery. A recovered execution is tracked
+     * like a submitted one, so its status can be polled and its callback URL is notified.
+     */
+    public CompletableFuture<Boolean> recover(String executionId) {
+        String workflowName = stateStore.getWorkflowName(executionId);
+        if (workflowName == null) {
+            logger.warn("[{}] Cannot recover execution without a recorded workflow", executionId);
+            return null;
+        }
+
+        ExecutionPlan plan = yamlLoader.loadPlan(workflowName);
+        SagaContext context = new SagaContext(executionId, workflowName);
+
+        switch (recoveryAction(executionId, plan)) {
+            case RESUME:
+                logger.info("[{}] Resuming interrupted execution of {}", executionId, workflowName);
+                CompletableFuture<Boolean> resumed = asyncTaskOrchestrator.resumeTasks(context, plan);
+                executionService.resumed(executionId, workflowName, resumed);
+                return resumed;
+            case COMPENSATE:
+                logger.info("[{}] Completing compensation of interrupted execution of {}", executionId, workflowName);
+                stateStore.updateExecutionStatus(executionId, TaskState.COMPENSATING);
+                CompletableFuture<Boolean> compensated = compensationEngine.compensateRecorded(context, plan)
+                        .thenApply(allCompensated -> {
+                            stateStore.updateExecutionStatus(executionId,
+                                    allCompensated ? TaskState.COMPENSATED : TaskState.FAILED);
+                            return false;
+                        });
+                executionService.resumed(executionId, workflowName, compensated);
+                return compensated;
+            default:
+                if (stateStore.getExecutionStatus(executionId) == TaskState.RUNNING
+                        || stateStore.getExecutionStatus(executionId) == TaskState.COMPENSATING) {
+                    // Finished, but the process died before the final status was recorded
+                    stateStore.updateExecutionStatus(executionId, finalStatus(executionId, plan));
+                }
+                return null;
+        }
+    }
+
+    private TaskState finalStatus(String executionId, ExecutionPlan plan) {
+        for (int index = 0; index < plan.taskCount(); index++) {
+            if (!stateStore.isTaskCompleted(executionId, plan.task(index).getName())) {
+                return TaskState.COMPENSATED;
+            }
+        }
+        return TaskState.COMPLETED;
+    }
+
+    /**
+     * Decide from the recorded states whether an execution is finished, should resume or should compensate
+     */
+    public RecoveryAction recoveryAction(String executionId, ExecutionPlan plan) {
+        boolean failed = false;
+        boolean compensationOwed = false;
+        boolean allCompleted = true;
+
+        for (int index = 0; index < plan.taskCount(); index++) {
+            TaskPlan task = plan.task(index);
+            TaskState taskState = stateStore.getTaskState(executionId, task.getName());
+            if (taskState == TaskState.FAILED || taskState == TaskState.CANCELLED
+                    || taskState == TaskState.COMPENSATING) {
+                failed = true;
+            }
+            if (taskState == TaskState.COMPLETED || taskState == TaskState.COMPENSATING) {
+                compensationOwed = true;
+            }
+            if (taskState != TaskState.COMPLETED) {
+                allCompleted = false;
+            }
+
+            for (int s = 0; s < task.stepCount(); s++) {
+                TaskState stepState = stateStore.getStepState(executionId, task.step(s));
+                if (stepState == TaskState.FAILED) {
+                    failed = true;
+                } else if (stepState == TaskState.CANCELLED) {
+                    // Only cancelled after a sibling failed, and may have run part of its command
+                    failed = true;
+                    compensationOwed = true;
+                } else if (stepState == TaskState.COMPLETED || stepState == TaskState.RUNNING
+                        || stepState == TaskState.COMPENSATING) {
+                    compensationOwed = true;
+                }
+            }
+        }
+
+        if (failed) {
+            return compensationOwed ? RecoveryAction.COMPENSATE : RecoveryAction.NONE;
+        }
+        return allCompleted ? RecoveryAction.NONE : RecoveryAction.RESUME;
+    }
+}
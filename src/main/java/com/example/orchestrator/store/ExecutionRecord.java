@@ -0,0 +1,179 @@
+package com.example.orchestrator.store;
+
+import com.example.orchestrator.models.dto.TaskState;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compact states of one execution. Task and step states are single bytes (ordinal + 1, 0 for none) in
+ * fixed-size pages indexed by the slots of the workflow's interned keys; pages are never copied once
+ * allocated, so every state is read and written in place with volatile or atomic byte access.
+ * Transitions are compare-and-set against the state they were checked against, so a transition
+ * the table does not allow never overwrites a state that raced ahead of it.
+ */
+final class ExecutionRecord {
+    private static final int PAGE_SHIFT = 4;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    private static final byte[][] NO_PAGES = new byte[0][];
+
+    /** Set in the result of {@link #transition} when the transition was rejected */
+    private static final int REJECTED = 1 << 8;
+
+    private static final VarHandle STATES = MethodHandles.arrayElementVarHandle(byte[].class);
+    private static final TaskState[] VALUES = TaskState.values();
+
+    final String executionId;
+    final StateKeys keys;
+    volatile String workflowName;
+    volatile String idempotencyKey;
+    volatile String callbackUrl;
+    /** When the execution finished, in epoch milliseconds */
+    volatile long finishedAtMs;
+    /** When the finished execution may be evicted, in epoch milliseconds */
+    volatile long expiresAtMs;
+
+    private volatile byte status;
+    /** Slots below PAGE_SIZE, enough for most workflows */
+    private final byte[] first = new byte[PAGE_SIZE];
+    /** Further pages, copied on write when one is added */
+    private volatile byte[][] more = NO_PAGES;
+
+    ExecutionRecord(String executionId, String workflowName, StateKeys keys) {
+        this.executionId = executionId;
+        this.workflowName = workflowName;
+        this.keys = keys;
+    }
+
+    TaskState getStatus() {
+        return decode(status);
+    }
+
+    void setStatus(TaskState status) {
+        this.status = encode(status);
+    }
+
+    /**
+     * Whether the execution has ended without leaving anything to do
+     */
+    boolean isFinished() {
+        byte current = status;
+        return current == encode(TaskState.COMPLETED) || current == encode(TaskState.COMPENSATED);
+    }
+
+    /**
+     * State stored under a key, or null
+     */
+    TaskState get(String key) {
+        int slot = keys.find(key);
+        if (slot < 0) {
+            return null;
+        }
+        byte[] page = existingPage(slot);
+        return page != null ? decode((byte) STATES.getVolatile(page, slot & PAGE_MASK)) : null;
+    }
+
+    /**
+     * Store the state of a key unchecked, as recovered from the journal
+     */
+    void set(String key, TaskState state) {
+        int slot = keys.slotOf(key);
+        STATES.setVolatile(page(slot), slot & PAGE_MASK, encode(state));
+    }
+
+    /**
+     * Move a key to a state if the transition table allows it from the current state. The result holds
+     * the previous state, see {@link #previousState} and {@link #isApplied}.
+     */
+    int transition(String key, TaskState state) {
+        int slot = keys.slotOf(key);
+        byte[] page = page(slot);
+        int offset = slot & PAGE_MASK;
+        byte next = encode(state);
+        byte current = (byte) STATES.getVolatile(page, offset);
+        while (true) {
+            TaskState from = decode(current);
+            if (!StateTransitions.isAllowed(from != null ? from : TaskState.NOT_STARTED, state)) {
+                return REJECTED | (current & 0xFF);
+            }
+            byte witness = (byte) STATES.compareAndExchange(page, offset, current, next);
+            if (witness == current) {
+                return current & 0xFF;
+            }
+            current = witness;
+        }
+    }
+
+    /**
+     * State a key was in before a transition, NOT_STARTED if it had none
+     */
+    static TaskState previousState(int result) {
+        TaskState state = decode((byte) result);
+        return state != null ? state : TaskState.NOT_STARTED;
+    }
+
+    static boolean isApplied(int result) {
+        return (result & REJECTED) == 0;
+    }
+
+    /**
+     * Copy of all stored states, keyed like the StateStore
+     */
+    Map<String, TaskState> toMap() {
+        Map<String, TaskState> states = new ConcurrentHashMap<>();
+        copyPage(first, 0, states);
+        byte[][] pages = more;
+        for (int index = 0; index < pages.length; index++) {
+            if (pages[index] != null) {
+                copyPage(pages[index], (index + 1) << PAGE_SHIFT, states);
+            }
+        }
+        return states;
+    }
+
+    private void copyPage(byte[] page, int base, Map<String, TaskState> states) {
+        for (int offset = 0; offset < PAGE_SIZE; offset++) {
+            TaskState state = decode((byte) STATES.getVolatile(page, offset));
+            if (state != null) {
+                states.put(keys.keyAt(base + offset), state);
+            }
+        }
+    }
+
+    private byte[] existingPage(int slot) {
+        if (slot < PAGE_SIZE) {
+            return first;
+        }
+        byte[][] pages = more;
+        int index = (slot >>> PAGE_SHIFT) - 1;
+        return index < pages.length ? pages[index] : null;
+    }
+
+    private byte[] page(int slot) {
+        byte[] page = existingPage(slot);
+        return page != null ? page : addPage((slot >>> PAGE_SHIFT) - 1);
+    }
+
+    private synchronized byte[] addPage(int index) {
+        byte[][] pages = more;
+        if (index < pages.length && pages[index] != null) {
+            return pages[index];
+        }
+        byte[][] grown = Arrays.copyOf(pages, Math.max(pages.length, index + 1));
+        grown[index] = new byte[PAGE_SIZE];
+        more = grown;
+        return grown[index];
+    }
+
+    private static byte encode(TaskState state) {
+        return (byte) (state.ordinal() + 1);
+    }
+
+    private static TaskState decode(byte code) {
+        return code == 0 ? null : VALUES[code - 1];
+    }
+}
\ No newline at end of file
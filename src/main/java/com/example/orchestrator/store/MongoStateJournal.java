@@ -0,0 +1,325 @@
+package com.example.orchestrator.store;
+
+import com.example.orchestrator.models.db.SagaExecutionDocument;
+import com.example.orchestrator.models.dto.TaskState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * State journal backed by the saga_executions collection, written behind through a buffer.
+ * Transitions are queued and flushed every flush interval, or as soon as a batch worth has queued up.
+ * Each flush coalesces the transitions of an execution into a single upsert and sends all of them
+ * as one unordered bulk write. The returned futures complete once the bulk write has been acknowledged.
+ */
+public final class MongoStateJournal implements StateJournal, Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(MongoStateJournal.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final int batchSize;
+    private final long keyRetentionMs;
+    private final Queue<Event> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "saga-execution-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean closed;
+
+    public MongoStateJournal(MongoTemplate mongoTemplate, long flushIntervalMs, int batchSize, long keyRetentionMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.batchSize = Math.max(1, batchSize);
+        this.keyRetentionMs = keyRetentionMs;
+        long interval = Math.max(1, flushIntervalMs);
+        flusher.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+        logger.info("Writing saga executions to MongoDB every {} ms or {} transitions", interval, this.batchSize);
+    }
+
+    @Override
+    public boolean isWriteBehind() {
+        return true;
+    }
+
+    @Override
+    public CompletableFuture<Void> registerExecution(String executionId, String workflowName) {
+        return enqueue(new Event(EventType.EXECUTION, executionId, workflowName, TaskState.RUNNING));
+    }
+
+    @Override
+    public CompletableFuture<Void> recordIdempotencyKey(String executionId, String idempotencyKey) {
+        return enqueue(new Event(EventType.IDEMPOTENCY_KEY, executionId, idempotencyKey, null));
+    }
+
+    @Override
+    public CompletableFuture<Void> recordCallbackUrl(String executionId, String callbackUrl) {
+        return enqueue(new Event(EventType.CALLBACK_URL, executionId, callbackUrl, null));
+    }
+
+    @Override
+    public CompletableFuture<Void> updateExecutionStatus(String executionId, TaskState status) {
+        return enqueue(new Event(EventType.STATUS, executionId, null, status));
+    }
+
+    @Override
+    public CompletableFuture<Void> append(String executionId, String key, TaskState state) {
+        return enqueue(new Event(EventType.STATE, executionId, key, state));
+    }
+
+    @Override
+    public CompletableFuture<Void> clearExecution(String executionId) {
+        return enqueue(new Event(EventType.CLEAR_EXECUTION, executionId, null, null));
+    }
+
+    @Override
+    public CompletableFuture<Void> clearAll() {
+        return enqueue(new Event(EventType.CLEAR_ALL, null, null, null));
+    }
+
+    /**
+     * Replay the executions that have not finished. COMPLETED and COMPENSATED sagas stay in the collection
+     * but are not loaded back into memory, except for the workflow, status and idempotency key of those
+     * submitted with a key that finished within the key retention, so a retry still finds them.
+     */
+    @Override
+    public void replay(Visitor visitor) {
+        Criteria unfinished = Criteria.where("status").nin(TaskState.COMPLETED, TaskState.COMPENSATED);
+        Criteria keyRetained = Criteria.where("idempotencyKey").exists(true)
+                .and("updatedAt").gte(LocalDateTime.now().minus(Duration.ofMillis(keyRetentionMs)));
+        Query query = new Query(new Criteria().orOperator(unfinished, keyRetained));
+        try (Stream<SagaExecutionDocument> executions = mongoTemplate.stream(query, SagaExecutionDocument.class)) {
+            executions.forEach(execution -> {
+                String executionId = execution.getExecutionId();
+                if (execution.getWorkflowName() != null) {
+                    visitor.execution(executionId, execution.getWorkflowName());
+                }
+                if (execution.getStatus() != null) {
+                    LocalDateTime updatedAt = execution.getUpdatedAt();
+                    visitor.executionStatus(executionId, execution.getStatus(), updatedAt != null
+                            ? updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0);
+                }
+                if (execution.getIdempotencyKey() != null) {
+                    visitor.idempotencyKey(executionId, execution.getIdempotencyKey());
+                }
+                boolean finished = execution.getStatus() == TaskState.COMPLETED
+                        || execution.getStatus() == TaskState.COMPENSATED;
+                if (execution.getCallbackUrl() != null && !finished) {
+                    visitor.callbackUrl(executionId, execution.getCallbackUrl());
+                }
+                if (execution.getStates() != null && !finished) {
+                    execution.getStates().forEach((key, state) -> visitor.state(executionId, unescape(key), state));
+                }
+            });
+        }
+    }
+
+    /**
+     * Flush pending transitions and stop the writer
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            flusher.execute(this::flush);
+        } catch (RejectedExecutionException e) {
+            logger.debug("Saga execution writer already stopped");
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Transitions that raced with shutdown are not written
+        Event event;
+        while ((event = queue.poll()) != null) {
+            event.completeExceptionally(new IllegalStateException("Saga execution writer is closed"));
+        }
+    }
+
+    private CompletableFuture<Void> enqueue(Event event) {
+        if (closed) {
+            event.completeExceptionally(new IllegalStateException("Saga execution writer is closed"));
+            return event;
+        }
+        queue.add(event);
+        if (pending.incrementAndGet() >= batchSize && flushRequested.compareAndSet(false, true)) {
+            try {
+                flusher.execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                flushRequested.set(false);
+            }
+        }
+        return event;
+    }
+
+    /**
+     * Write all queued transitions, one bulk write per batch
+     */
+    private void flush() {
+        flushRequested.set(false);
+        List<Event> batch = new ArrayList<>(batchSize);
+        while (true) {
+            Event event;
+            while (batch.size() < batchSize && (event = queue.poll()) != null) {
+                batch.add(event);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            pending.addAndGet(-batch.size());
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<Event> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, PendingUpdate> updates = new LinkedHashMap<>();
+        try {
+            for (Event event : batch) {
+                switch (event.type) {
+                    case EXECUTION:
+                        updateFor(updates, event.executionId, now).update
+                                .set("workflow_name", event.key)
+                                .set("status", event.state)
+                                .setOnInsert("created_at", now);
+                        break;
+                    case IDEMPOTENCY_KEY:
+                        updateFor(updates, event.executionId, now).update.set("idempotency_key", event.key);
+                        break;
+                    case CALLBACK_URL:
+                        updateFor(updates, event.executionId, now).update.set("callback_url", event.key);
+                        break;
+                    case STATUS:
+                        updateFor(updates, event.executionId, now).update.set("status", event.state);
+                        break;
+                    case STATE:
+                        PendingUpdate pendingUpdate = updateFor(updates, event.executionId, now);
+                        pendingUpdate.update.set("states." + escape(event.key), event.state);
+                        pendingUpdate.transitions++;
+                        break;
+                    case CLEAR_EXECUTION:
+                        // Removals must not be reordered with upserts of the same execution
+                        execute(updates);
+                        mongoTemplate.remove(byId(event.executionId), SagaExecutionDocument.class);
+                        break;
+                    case CLEAR_ALL:
+                        execute(updates);
+                        mongoTemplate.remove(new Query(), SagaExecutionDocument.class);
+                        break;
+                    default:
+                        break;
+                }
+            }
+            execute(updates);
+            for (Event event : batch) {
+                event.complete(null);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Failed to write {} saga execution transitions", batch.size(), e);
+            for (Event event : batch) {
+                event.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void execute(Map<String, PendingUpdate> updates) {
+        if (updates.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SagaExecutionDocument.class);
+        updates.forEach((executionId, pendingUpdate) -> {
+            if (pendingUpdate.transitions > 0) {
+                pendingUpdate.update.inc("transitions", pendingUpdate.transitions);
+            }
+            bulk.upsert(byId(executionId), pendingUpdate.update);
+        });
+        bulk.execute();
+        logger.debug("Upserted {} saga executions", updates.size());
+        updates.clear();
+    }
+
+    private static PendingUpdate updateFor(Map<String, PendingUpdate> updates, String executionId, LocalDateTime now) {
+        return updates.computeIfAbsent(executionId, id -> new PendingUpdate(new Update().set("updated_at", now)));
+    }
+
+    private static Query byId(String executionId) {
+        return new Query(Criteria.where("_id").is(executionId));
+    }
+
+    /**
+     * Step keys become field names, which must not contain dots or start with a dollar sign
+     */
+    private static String escape(String key) {
+        return key.replace("%", "%25").replace(".", "%2E").replace("$", "%24");
+    }
+
+    private static String unescape(String key) {
+        return key.replace("%24", "$").replace("%2E", ".").replace("%25", "%");
+    }
+
+    private enum EventType {
+        EXECUTION,
+        STATUS,
+        IDEMPOTENCY_KEY,
+        CALLBACK_URL,
+        STATE,
+        CLEAR_EXECUTION,
+        CLEAR_ALL
+    }
+
+    /**
+     * Queued transition; completes once it has been written
+     */
+    private static final class Event extends CompletableFuture<Void> {
+        private final EventType type;
+        private final String executionId;
+        private final String key;
+        private final TaskState state;
+
+        Event(EventType type, String executionId, String key, TaskState state) {
+            this.type = type;
+            this.executionId = executionId;
+            this.key = key;
+            this.state = state;
+        }
+    }
+
+    /**
+     * Coalesced update of one execution within a flush
+     */
+    private static final class PendingUpdate {
+        private final Update update;
+        private int transitions;
+
+        PendingUpdate(Update update) {
+            this.update = update;
+        }
+    }
+}
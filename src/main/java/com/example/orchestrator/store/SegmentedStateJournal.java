@@ -0,0 +1,630 @@
+package com.example.orchestrator.store;
+
+import com.example.orchestrator.models.dto.TaskState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only state journal stored as numbered segment files.
+ * A single writer thread drains all pending records into one write followed by one fsync (group commit),
+ * so concurrent writers share the cost of forcing the file instead of each waiting on their own fsync.
+ * Segments roll over at a size limit; once enough closed segments have accumulated they are compacted
+ * in the background into a single segment holding only the latest state of each key, without the
+ * executions that had finished (COMPLETED or COMPENSATED), so the journal only grows with sagas in flight.
+ * A finished execution submitted with an idempotency key keeps its workflow, final status and key, but
+ * not its states, until the key retention has passed since it finished, so a retry after a restart still
+ * finds it.
+ * Each record carries its length and a CRC32, and a torn record at the end of the last segment
+ * is truncated when the journal is opened.
+ */
+public final class SegmentedStateJournal implements StateJournal, Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(SegmentedStateJournal.class);
+
+    private static final String SEGMENT_PREFIX = "state-";
+    private static final String SEGMENT_SUFFIX = ".wal";
+    private static final String COMPACTING_SUFFIX = ".compacting";
+
+    private static final byte STATE = 1;
+    private static final byte CLEAR_EXECUTION = 2;
+    private static final byte CLEAR_ALL = 3;
+    private static final byte EXECUTION = 4;
+    private static final byte CALLBACK_URL = 5;
+    private static final byte EXECUTION_STATUS = 6;
+    private static final byte IDEMPOTENCY_KEY = 7;
+
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_BATCH = 8192;
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    private final Path directory;
+    private final long segmentSizeBytes;
+    private final int compactionThreshold;
+    private final long keyRetentionMs;
+    private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private final Object segmentsLock = new Object();
+    private final List<Long> closedSegments = new ArrayList<>();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "state-journal-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Thread writer;
+    private final long firstActiveSegment;
+    private FileChannel active;
+    private long activeSegment;
+    private long activeSize;
+    private volatile boolean closed;
+
+    private SegmentedStateJournal(Path directory, long segmentSizeBytes, int compactionThreshold,
+                                  long keyRetentionMs) throws IOException {
+        this.directory = directory;
+        this.segmentSizeBytes = segmentSizeBytes;
+        this.compactionThreshold = Math.max(2, compactionThreshold);
+        this.keyRetentionMs = keyRetentionMs;
+
+        Files.createDirectories(directory);
+        deleteUnfinishedCompactions(directory);
+
+        List<Long> segments = listSegments(directory);
+        if (!segments.isEmpty()) {
+            truncateTornTail(segmentPath(segments.get(segments.size() - 1)));
+        }
+        closedSegments.addAll(segments);
+
+        // Always append to a fresh segment so replay never races with the writer
+        this.firstActiveSegment = segments.isEmpty() ? 1 : segments.get(segments.size() - 1) + 1;
+        openSegment(firstActiveSegment);
+
+        this.writer = new Thread(this::writeLoop, "state-journal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+
+        logger.info("State journal opened in {} with {} existing segments", directory, segments.size());
+    }
+
+    /**
+     * Open the journal in the given directory, creating it if needed. Compaction keeps the idempotency key
+     * and final status of a finished execution for keyRetentionMs after it finished.
+     */
+    public static SegmentedStateJournal open(Path directory, long segmentSizeBytes, int compactionThreshold,
+                                             long keyRetentionMs) {
+        try {
+            return new SegmentedStateJournal(directory, segmentSizeBytes, compactionThreshold, keyRetentionMs);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open state journal in " + directory, e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> registerExecution(String executionId, String workflowName) {
+        return enqueue(encode(EXECUTION, executionId, workflowName, null));
+    }
+
+    @Override
+    public CompletableFuture<Void> recordIdempotencyKey(String executionId, String idempotencyKey) {
+        return enqueue(encode(IDEMPOTENCY_KEY, executionId, idempotencyKey, null));
+    }
+
+    @Override
+    public CompletableFuture<Void> recordCallbackUrl(String executionId, String callbackUrl) {
+        return enqueue(encode(CALLBACK_URL, executionId, callbackUrl, null));
+    }
+
+    @Override
+    public CompletableFuture<Void> updateExecutionStatus(String executionId, TaskState status) {
+        return enqueue(encode(EXECUTION_STATUS, executionId, Long.toString(System.currentTimeMillis()), status));
+    }
+
+    @Override
+    public CompletableFuture<Void> append(String executionId, String key, TaskState state) {
+        return enqueue(encode(STATE, executionId, key, state));
+    }
+
+    @Override
+    public CompletableFuture<Void> clearExecution(String executionId) {
+        return enqueue(encode(CLEAR_EXECUTION, executionId, "", null));
+    }
+
+    @Override
+    public CompletableFuture<Void> clearAll() {
+        return enqueue(encode(CLEAR_ALL, "", "", null));
+    }
+
+    @Override
+    public void replay(Visitor visitor) {
+        synchronized (segmentsLock) {
+            for (long segment : closedSegments) {
+                if (segment >= firstActiveSegment) {
+                    break;
+                }
+                try {
+                    readSegment(segmentPath(segment), visitor);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to replay state journal segment " + segment, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Flush pending records and close the current segment
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Records that raced with shutdown are not written
+        Entry pending;
+        while ((pending = queue.poll()) != null) {
+            pending.completeExceptionally(new IllegalStateException("State journal is closed"));
+        }
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(10, TimeUnit.SECONDS);
+            active.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            logger.warn("Failed to close state journal segment", e);
+        }
+        logger.info("State journal closed");
+    }
+
+    private CompletableFuture<Void> enqueue(ByteBuffer record) {
+        Entry entry = new Entry(record);
+        if (closed) {
+            entry.completeExceptionally(new IllegalStateException("State journal is closed"));
+            return entry;
+        }
+        queue.add(entry);
+        return entry;
+    }
+
+    /**
+     * Drain everything that queued up while the previous batch was being forced, write it and force once
+     */
+    private void writeLoop() {
+        List<Entry> batch = new ArrayList<>(MAX_BATCH);
+        while (true) {
+            Entry first;
+            try {
+                first = queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                first = null;
+                closed = true;
+            }
+            if (first == null) {
+                if (closed && queue.isEmpty()) {
+                    return;
+                }
+                continue;
+            }
+
+            batch.add(first);
+            queue.drainTo(batch, MAX_BATCH - 1);
+            try {
+                for (Entry entry : batch) {
+                    write(entry.record);
+                }
+                flushBuffer();
+                active.force(false);
+                for (Entry entry : batch) {
+                    entry.complete(null);
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.error("Failed to write {} state journal records", batch.size(), e);
+                for (Entry entry : batch) {
+                    entry.completeExceptionally(e);
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    private void write(ByteBuffer record) throws IOException {
+        int size = record.remaining();
+        if (activeSize > 0 && activeSize + buffer.position() + size > segmentSizeBytes) {
+            flushBuffer();
+            rollSegment();
+        }
+        if (size > buffer.remaining()) {
+            flushBuffer();
+        }
+        if (size > buffer.capacity()) {
+            writeFully(active, record);
+            activeSize += size;
+            return;
+        }
+        buffer.put(record);
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        activeSize += buffer.remaining();
+        writeFully(active, buffer);
+        buffer.clear();
+    }
+
+    private void rollSegment() throws IOException {
+        active.force(false);
+        active.close();
+        synchronized (segmentsLock) {
+            closedSegments.add(activeSegment);
+        }
+        openSegment(activeSegment + 1);
+
+        int closedCount;
+        synchronized (segmentsLock) {
+            closedCount = closedSegments.size();
+        }
+        if (closedCount >= compactionThreshold) {
+            try {
+                compactor.execute(this::compact);
+            } catch (RejectedExecutionException e) {
+                logger.debug("State journal compaction skipped during shutdown");
+            }
+        }
+    }
+
+    private void openSegment(long segment) throws IOException {
+        active = FileChannel.open(segmentPath(segment),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        activeSegment = segment;
+        activeSize = active.size();
+    }
+
+    /**
+     * Fold all closed segments into one holding the latest state per key of the executions that have not
+     * finished, and the idempotency key and final status of finished executions whose key is still retained.
+     * The compacted segment starts with a clear-all record and replaces the newest closed segment,
+     * so replay stays correct if the process dies before the older segments are deleted.
+     */
+    private void compact() {
+        List<Long> segments;
+        synchronized (segmentsLock) {
+            if (closedSegments.size() < compactionThreshold) {
+                return;
+            }
+            segments = new ArrayList<>(closedSegments);
+        }
+
+        long started = System.currentTimeMillis();
+        Map<String, String> workflows = new LinkedHashMap<>();
+        Map<String, TaskState> statuses = new LinkedHashMap<>();
+        Map<String, Long> statusTimes = new HashMap<>();
+        Map<String, String> idempotencyKeys = new LinkedHashMap<>();
+        Map<String, String> callbackUrls = new LinkedHashMap<>();
+        Map<String, Map<String, TaskState>> states = new LinkedHashMap<>();
+        Visitor folder = new Visitor() {
+            @Override
+            public void execution(String executionId, String workflowName) {
+                workflows.put(executionId, workflowName);
+            }
+
+            @Override
+            public void executionStatus(String executionId, TaskState status, long updatedAtMs) {
+                statuses.put(executionId, status);
+                statusTimes.put(executionId, updatedAtMs);
+            }
+
+            @Override
+            public void idempotencyKey(String executionId, String idempotencyKey) {
+                idempotencyKeys.put(executionId, idempotencyKey);
+            }
+
+            @Override
+            public void callbackUrl(String executionId, String callbackUrl) {
+                callbackUrls.put(executionId, callbackUrl);
+            }
+
+            @Override
+            public void state(String executionId, String key, TaskState state) {
+                states.computeIfAbsent(executionId, id -> new LinkedHashMap<>()).put(key, state);
+            }
+
+            @Override
+            public void clearExecution(String executionId) {
+                workflows.remove(executionId);
+                statuses.remove(executionId);
+                statusTimes.remove(executionId);
+                idempotencyKeys.remove(executionId);
+                callbackUrls.remove(executionId);
+                states.remove(executionId);
+            }
+
+            @Override
+            public void clearAll() {
+                workflows.clear();
+                statuses.clear();
+                statusTimes.clear();
+                idempotencyKeys.clear();
+                callbackUrls.clear();
+                states.clear();
+            }
+        };
+
+        long target = segments.get(segments.size() - 1);
+        Path compacting = directory.resolve(segmentName(target) + COMPACTING_SUFFIX);
+        try {
+            for (long segment : segments) {
+                readSegment(segmentPath(segment), folder);
+            }
+            int finished = 0;
+            int retained = 0;
+            for (Map.Entry<String, TaskState> status : List.copyOf(statuses.entrySet())) {
+                String executionId = status.getKey();
+                if (status.getValue() != TaskState.COMPLETED && status.getValue() != TaskState.COMPENSATED) {
+                    continue;
+                }
+                // A status recorded without a time is retained as if it had just been recorded
+                long recordedAt = statusTimes.get(executionId);
+                long finishedAt = recordedAt > 0 ? recordedAt : started;
+                if (idempotencyKeys.containsKey(executionId) && finishedAt + keyRetentionMs > started) {
+                    states.remove(executionId);
+                    callbackUrls.remove(executionId);
+                    statusTimes.put(executionId, finishedAt);
+                    retained++;
+                } else {
+                    folder.clearExecution(executionId);
+                    finished++;
+                }
+            }
+
+            try (FileChannel out = FileChannel.open(compacting,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                writeFully(out, encode(CLEAR_ALL, "", "", null));
+                for (Map.Entry<String, String> workflow : workflows.entrySet()) {
+                    writeFully(out, encode(EXECUTION, workflow.getKey(), workflow.getValue(), null));
+                }
+                for (Map.Entry<String, TaskState> status : statuses.entrySet()) {
+                    long updatedAt = statusTimes.get(status.getKey());
+                    writeFully(out, encode(EXECUTION_STATUS, status.getKey(),
+                            updatedAt > 0 ? Long.toString(updatedAt) : "", status.getValue()));
+                }
+                for (Map.Entry<String, String> idempotencyKey : idempotencyKeys.entrySet()) {
+                    writeFully(out, encode(IDEMPOTENCY_KEY, idempotencyKey.getKey(), idempotencyKey.getValue(), null));
+                }
+                for (Map.Entry<String, String> callbackUrl : callbackUrls.entrySet()) {
+                    writeFully(out, encode(CALLBACK_URL, callbackUrl.getKey(), callbackUrl.getValue(), null));
+                }
+                for (Map.Entry<String, Map<String, TaskState>> execution : states.entrySet()) {
+                    for (Map.Entry<String, TaskState> state : execution.getValue().entrySet()) {
+                        writeFully(out, encode(STATE, execution.getKey(), state.getKey(), state.getValue()));
+                    }
+                }
+                out.force(true);
+            }
+
+            synchronized (segmentsLock) {
+                Files.move(compacting, segmentPath(target),
+                        StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                for (long segment : segments) {
+                    if (segment != target) {
+                        Files.deleteIfExists(segmentPath(segment));
+                    }
+                }
+                closedSegments.removeIf(segment -> segment < target);
+            }
+            logger.info("Compacted {} state journal segments into {} executions, dropping {} finished and keeping "
+                            + "the idempotency keys of {} finished, in {} ms",
+                    segments.size(), states.size(), finished, retained, System.currentTimeMillis() - started);
+
+        } catch (IOException e) {
+            logger.error("State journal compaction failed", e);
+            try {
+                Files.deleteIfExists(compacting);
+            } catch (IOException ignored) {
+                // Removed on next open
+            }
+        }
+    }
+
+    private static void deleteUnfinishedCompactions(Path directory) throws IOException {
+        List<Path> leftovers;
+        try (Stream<Path> files = Files.list(directory)) {
+            leftovers = files.filter(path -> path.getFileName().toString().endsWith(COMPACTING_SUFFIX)).toList();
+        }
+        for (Path leftover : leftovers) {
+            logger.warn("Removing unfinished state journal compaction {}", leftover.getFileName());
+            Files.deleteIfExists(leftover);
+        }
+    }
+
+    /**
+     * Truncate a partially written record left at the end of a segment by a crash
+     */
+    private static void truncateTornTail(Path segment) throws IOException {
+        long validBytes = readSegment(segment, null);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            if (validBytes < channel.size()) {
+                logger.warn("Truncating torn tail of state journal segment {} from {} to {} bytes",
+                        segment.getFileName(), channel.size(), validBytes);
+                channel.truncate(validBytes);
+                channel.force(true);
+            }
+        }
+    }
+
+    /**
+     * Read the records of a segment, returning the number of bytes that hold valid records
+     */
+    private static long readSegment(Path segment, Visitor visitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return 0;
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            CRC32 crc = new CRC32();
+
+            while (mapped.remaining() >= HEADER_BYTES) {
+                int start = mapped.position();
+                int length = mapped.getInt();
+                int checksum = mapped.getInt();
+                if (length <= 0 || length > mapped.remaining()) {
+                    return start;
+                }
+
+                ByteBuffer payload = mapped.slice(mapped.position(), length);
+                crc.reset();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    return start;
+                }
+                if (visitor != null) {
+                    decode(payload, visitor);
+                }
+                mapped.position(mapped.position() + length);
+            }
+            return mapped.position();
+        }
+    }
+
+    private static ByteBuffer encode(byte type, String executionId, String key, TaskState state) {
+        byte[] id = executionId.getBytes(StandardCharsets.UTF_8);
+        byte[] name = key.getBytes(StandardCharsets.UTF_8);
+        byte[] stateName = state != null ? state.name().getBytes(StandardCharsets.UTF_8) : new byte[0];
+        if (id.length > 0xFFFF || name.length > 0xFFFF) {
+            throw new IllegalArgumentException("Execution id or state key too long for the state journal");
+        }
+
+        int length = 1 + 2 + id.length + 2 + name.length + 1 + stateName.length;
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + length);
+        record.putInt(length);
+        record.putInt(0);
+        record.put(type);
+        record.putShort((short) id.length).put(id);
+        record.putShort((short) name.length).put(name);
+        record.put((byte) stateName.length).put(stateName);
+
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), HEADER_BYTES, length);
+        record.putInt(4, (int) crc.getValue());
+        record.flip();
+        return record;
+    }
+
+    private static void decode(ByteBuffer payload, Visitor visitor) {
+        byte type = payload.get();
+        String executionId = readString(payload, Short.toUnsignedInt(payload.getShort()));
+        String key = readString(payload, Short.toUnsignedInt(payload.getShort()));
+        String stateName = readString(payload, Byte.toUnsignedInt(payload.get()));
+
+        switch (type) {
+            case STATE:
+                try {
+                    visitor.state(executionId, key, TaskState.valueOf(stateName));
+                } catch (IllegalArgumentException e) {
+                    logger.warn("[{}] Skipping journal record for '{}' with unknown state {}", executionId, key, stateName);
+                }
+                break;
+            case EXECUTION_STATUS:
+                try {
+                    visitor.executionStatus(executionId, TaskState.valueOf(stateName), parseTime(key));
+                } catch (IllegalArgumentException e) {
+                    logger.warn("[{}] Skipping journal record with unknown execution status {}", executionId, stateName);
+                }
+                break;
+            case EXECUTION:
+                visitor.execution(executionId, key);
+                break;
+            case IDEMPOTENCY_KEY:
+                visitor.idempotencyKey(executionId, key);
+                break;
+            case CALLBACK_URL:
+                visitor.callbackUrl(executionId, key);
+                break;
+            case CLEAR_EXECUTION:
+                visitor.clearExecution(executionId);
+                break;
+            case CLEAR_ALL:
+                visitor.clearAll();
+                break;
+            default:
+                logger.warn("Skipping state journal record of unknown type {}", type);
+        }
+    }
+
+    /**
+     * Time stored in the key of a status record; records written without one read as 0
+     */
+    private static long parseTime(String key) {
+        try {
+            return key.isEmpty() ? 0 : Long.parseLong(key);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static String readString(ByteBuffer payload, int length) {
+        byte[] bytes = new byte[length];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+
+    private static List<Long> listSegments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+        }
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(segmentName(segment));
+    }
+
+    private static String segmentName(long segment) {
+        return String.format("%s%016d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX);
+    }
+
+    /**
+     * Encoded record waiting to be written; completes once it has been forced to storage
+     */
+    private static final class Entry extends CompletableFuture<Void> {
+        private final ByteBuffer record;
+
+        Entry(ByteBuffer record) {
+            this.record = record;
+        }
+    }
+}
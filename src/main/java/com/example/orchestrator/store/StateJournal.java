@@ -0,0 +1,82 @@
+package com.example.orchestrator.store;
+
+import com.example.orchestrator.models.dto.TaskState;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Durable log of state transitions backing the StateStore. Appends are ordered; the returned
+ * future completes once the record has been forced to storage.
+ */
+public interface StateJournal {
+
+    /**
+     * Record which workflow an execution runs, so it can be recovered after a restart
+     */
+    CompletableFuture<Void> registerExecution(String executionId, String workflowName);
+
+    /**
+     * Record the idempotency key an execution was submitted with
+     */
+    CompletableFuture<Void> recordIdempotencyKey(String executionId, String idempotencyKey);
+
+    /**
+     * Record the URL notified when an execution finishes, so a resumed execution still notifies it
+     */
+    CompletableFuture<Void> recordCallbackUrl(String executionId, String callbackUrl);
+
+    /**
+     * Record the overall status of an execution, with the time it was recorded
+     */
+    CompletableFuture<Void> updateExecutionStatus(String executionId, TaskState status);
+
+    /**
+     * Record the state of a task or step, keyed like the StateStore
+     */
+    CompletableFuture<Void> append(String executionId, String key, TaskState state);
+
+    /**
+     * Record that all states of one execution were removed
+     */
+    CompletableFuture<Void> clearExecution(String executionId);
+
+    /**
+     * Record that all states were removed
+     */
+    CompletableFuture<Void> clearAll();
+
+    /**
+     * Whether writes are buffered and only forced to storage by a later flush. The StateStore never waits
+     * for the writes of such a journal, since every transition would then block for up to a flush interval.
+     */
+    default boolean isWriteBehind() {
+        return false;
+    }
+
+    /**
+     * Replay the records that were persisted before the journal was opened, in append order
+     */
+    void replay(Visitor visitor);
+
+    /**
+     * Receives replayed records
+     */
+    interface Visitor {
+        void execution(String executionId, String workflowName);
+
+        /**
+         * @param updatedAtMs when the status was recorded, in epoch milliseconds, or 0 if unknown
+         */
+        void executionStatus(String executionId, TaskState status, long updatedAtMs);
+
+        void idempotencyKey(String executionId, String idempotencyKey);
+
+        void callbackUrl(String executionId, String callbackUrl);
+
+        void state(String executionId, String key, TaskState state);
+
+        void clearExecution(String executionId);
+
+        void clearAll();
+    }
+}
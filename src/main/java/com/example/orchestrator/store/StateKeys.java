@@ -0,0 +1,54 @@
+package com.example.orchestrator.store;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Interned task and step keys of one workflow. Each key gets a dense slot the first time it is stored,
+ * shared by every execution of the workflow, so executions keep their states by slot instead of by key.
+ */
+final class StateKeys {
+    private final ConcurrentMap<String, Integer> slots = new ConcurrentHashMap<>();
+
+    private volatile String[] keys = new String[16];
+
+    private int size;
+
+    /**
+     * Slot of a key, assigning the next free one if the key is new
+     */
+    int slotOf(String key) {
+        Integer slot = slots.get(key);
+        return slot != null ? slot : intern(key);
+    }
+
+    /**
+     * Slot of a key, or -1 if no execution has stored it
+     */
+    int find(String key) {
+        Integer slot = slots.get(key);
+        return slot != null ? slot : -1;
+    }
+
+    /**
+     * Key of a slot handed out by {@link #slotOf}
+     */
+    String keyAt(int slot) {
+        return keys[slot];
+    }
+
+    private synchronized int intern(String key) {
+        Integer slot = slots.get(key);
+        if (slot != null) {
+            return slot;
+        }
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+        }
+        keys[size] = key;
+        // Published after the key, so whoever sees the slot also sees its key
+        slots.put(key, size);
+        return size++;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.example.orchestrator.store;
+
+import java.util.List;
+
+/**
+ * Subscriber to the task and step transitions of the StateStore, registered with
+ * {@link StateStore#addListener}. Transitions are delivered in batches on the store's dispatcher thread,
+ * never on the thread that made them, so listeners add no latency to state updates; a slow listener
+ * delays the others and, once the queue is full, causes transitions to be dropped.
+ */
+public interface StateListener {
+
+    /**
+     * Receive the transitions made since the previous batch, applied and rejected, in the order they were
+     * queued. Transitions of one key made concurrently may arrive out of order; each carries the state it replaced.
+     */
+    void onTransitions(List<StateTransition> transitions);
+}
\ No newline at end of file
@@ -1,64 +1,604 @@
 package com.example.orchestrator.store;
 
 import com.example.orchestrator.models.dto.TaskState;
+import com.example.orchestrator.plan.StepPlan;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
- * In-memory state store for tracking task states
+ * In-memory state store for tracking task and step states per saga execution.
+ * When a state journal is configured, every transition is written to the journal before the update
+ * returns, and the states are rebuilt from it on startup.
+ *
+ * Executions are spread over shards, each a map of compact records holding states as bytes indexed by
+ * the interned keys of their workflow. COMPLETED and COMPENSATED executions are evicted from memory after
+ * finished-ttl-seconds, or after persisted-ttl-seconds once the journal has persisted their final status.
+ * An execution submitted with an idempotency key is never evicted before the idempotency TTL has passed
+ * since it finished, so a retry with the key still finds its result.
+ *
+ * Task and step updates follow the {@link StateTransitions} table: each is a compare-and-set against the
+ * current state, and a transition the table does not allow is rejected instead of applied. Listeners
+ * receive every transition in batches on a dispatcher thread.
  */
 @Component
 public class StateStore {
     private static final Logger logger = LoggerFactory.getLogger(StateStore.class);
-    
-    private final ConcurrentMap<String, TaskState> taskStates = new ConcurrentHashMap<>();
+
+    private static final String STEP_SEPARATOR = "/";
+
+    private static final int SHARDS = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 8 - 1) << 1;
+
+    private final Shard[] shards = new Shard[SHARDS];
+
+    private final ConcurrentMap<String, StateKeys> keysByWorkflow = new ConcurrentHashMap<>();
+
+    /** Keys of executions stored without being registered */
+    private final StateKeys unregisteredKeys = new StateKeys();
+
+    private final ConcurrentMap<String, String> executionByIdempotencyKey = new ConcurrentHashMap<>();
+
+    @Autowired(required = false)
+    private StateJournal journal;
+
+    @Value("${orchestrator.state.journal.await-sync:true}")
+    private boolean awaitSync;
+
+    @Value("${orchestrator.state.finished-ttl-seconds:3600}")
+    private long finishedTtlSeconds;
+
+    @Value("${orchestrator.state.persisted-ttl-seconds:60}")
+    private long persistedTtlSeconds;
+
+    @Value("${orchestrator.idempotency.ttl-seconds:3600}")
+    private long idempotencyTtlSeconds;
+
+    @Value("${orchestrator.state.eviction-interval-ms:1000}")
+    private long evictionIntervalMs;
+
+    @Value("${orchestrator.state.listeners.flush-interval-ms:50}")
+    private long listenerFlushIntervalMs;
+
+    @Value("${orchestrator.state.listeners.batch-size:1000}")
+    private int listenerBatchSize;
+
+    @Value("${orchestrator.state.listeners.queue-capacity:100000}")
+    private int listenerQueueCapacity;
+
+    private ScheduledExecutorService evictor;
+
+    private volatile TransitionDispatcher dispatcher;
+
+    public StateStore() {
+        for (int index = 0; index < shards.length; index++) {
+            shards[index] = new Shard();
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        if (finishedTtlSeconds >= 0 || (journal != null && persistedTtlSeconds >= 0)) {
+            evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "state-store-evictor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long interval = Math.max(1, evictionIntervalMs);
+            evictor.scheduleWithFixedDelay(this::evictExpired, interval, interval, TimeUnit.MILLISECONDS);
+        }
+        recover();
+    }
+
+    @PreDestroy
+    public void close() {
+        if (evictor != null) {
+            evictor.shutdownNow();
+        }
+        if (dispatcher != null) {
+            dispatcher.close();
+        }
+    }
+
+    /**
+     * Rebuild the states persisted by a previous run
+     */
+    private void recover() {
+        if (journal == null) {
+            return;
+        }
+        journal.replay(new StateJournal.Visitor() {
+            @Override
+            public void execution(String executionId, String workflowName) {
+                registered(executionId, workflowName).setStatus(TaskState.RUNNING);
+            }
+
+            @Override
+            public void executionStatus(String executionId, TaskState status, long updatedAtMs) {
+                ExecutionRecord record = recordFor(executionId);
+                record.setStatus(status);
+                record.finishedAtMs = updatedAtMs > 0 ? updatedAtMs : System.currentTimeMillis();
+            }
+
+            @Override
+            public void idempotencyKey(String executionId, String idempotencyKey) {
+                recordIdempotencyKey(recordFor(executionId), idempotencyKey);
+            }
+
+            @Override
+            public void callbackUrl(String executionId, String callbackUrl) {
+                recordFor(executionId).callbackUrl = callbackUrl;
+            }
+
+            @Override
+            public void state(String executionId, String key, TaskState state) {
+                recordFor(executionId).set(key, state);
+            }
+
+            @Override
+            public void clearExecution(String executionId) {
+                remove(executionId);
+            }
+
+            @Override
+            public void clearAll() {
+                clear();
+            }
+        });
+        // Finished executions are persisted by definition; queued in finishing order, as they are when live
+        int executions = 0;
+        List<ExecutionRecord> finished = new ArrayList<>();
+        for (Shard shard : shards) {
+            for (ExecutionRecord record : shard.records.values()) {
+                executions++;
+                if (record.isFinished()) {
+                    finished.add(record);
+                }
+            }
+        }
+        finished.sort(Comparator.comparingLong(record -> record.finishedAtMs));
+        finished.forEach(record -> scheduleEviction(record, true));
+        logger.info("Recovered states of {} executions from the state journal", executions);
+    }
+
+    /**
+     * Record which workflow an execution runs; the execution starts out RUNNING
+     */
+    public void registerExecution(String executionId, String workflowName) {
+        if (journal != null) {
+            await(journal.registerExecution(executionId, workflowName));
+        }
+        registered(executionId, workflowName).setStatus(TaskState.RUNNING);
+    }
 
     /**
-     * Update the state of a task
+     * Record the idempotency key an execution was submitted with
      */
-    public void updateTaskState(String taskName, TaskState state) {
-        TaskState previousState = taskStates.put(taskName, state);
-        logger.info("Task '{}' state transition: {} -> {}", taskName, previousState, state);
+    public void recordIdempotencyKey(String executionId, String idempotencyKey) {
+        if (journal != null) {
+            await(journal.recordIdempotencyKey(executionId, idempotencyKey));
+        }
+        recordIdempotencyKey(recordFor(executionId), idempotencyKey);
     }
 
     /**
-     * Get the current state of a task
+     * Record the URL notified when an execution finishes
      */
-    public TaskState getTaskState(String taskName) {
-        return taskStates.getOrDefault(taskName, TaskState.NOT_STARTED);
+    public void recordCallbackUrl(String executionId, String callbackUrl) {
+        if (journal != null) {
+            await(journal.recordCallbackUrl(executionId, callbackUrl));
+        }
+        recordFor(executionId).callbackUrl = callbackUrl;
+    }
+
+    /**
+     * Get the URL notified when an execution finishes, or null
+     */
+    public String getCallbackUrl(String executionId) {
+        ExecutionRecord record = find(executionId);
+        return record != null ? record.callbackUrl : null;
+    }
+
+    /**
+     * Find the execution submitted with an idempotency key, or null
+     */
+    public String findExecutionByIdempotencyKey(String idempotencyKey) {
+        return executionByIdempotencyKey.get(idempotencyKey);
+    }
+
+    /**
+     * Update the overall status of an execution; ignored for an execution that is not registered or was evicted
+     */
+    public void updateExecutionStatus(String executionId, TaskState status) {
+        ExecutionRecord record = find(executionId);
+        if (record == null) {
+            logger.debug("[{}] Ignoring execution status {} of an unknown or evicted execution", executionId, status);
+            return;
+        }
+        CompletableFuture<Void> write = null;
+        if (journal != null) {
+            write = journal.updateExecutionStatus(executionId, status);
+            await(write);
+        }
+        TaskState previousStatus = record.getStatus();
+        record.setStatus(status);
+        logger.debug("[{}] Execution status transition: {} -> {}", executionId, previousStatus, status);
+
+        if (record.isFinished()) {
+            record.finishedAtMs = System.currentTimeMillis();
+            if (write == null) {
+                scheduleEviction(record, false);
+            } else {
+                write.whenComplete((ignored, error) -> scheduleEviction(record, error == null));
+            }
+        }
+    }
+
+    /**
+     * Get the overall status of an execution
+     */
+    public TaskState getExecutionStatus(String executionId) {
+        ExecutionRecord record = find(executionId);
+        TaskState status = record != null ? record.getStatus() : null;
+        return status != null ? status : TaskState.NOT_STARTED;
+    }
+
+    /**
+     * Number of executions with each overall status, indexed by status ordinal, counted in one pass on each call
+     */
+    public long[] countExecutionsByStatus() {
+        long[] counts = new long[TaskState.values().length];
+        for (Shard shard : shards) {
+            for (ExecutionRecord record : shard.records.values()) {
+                TaskState status = record.getStatus();
+                if (status != null) {
+                    counts[status.ordinal()]++;
+                }
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Get the workflow an execution runs, or null if it was not registered
+     */
+    public String getWorkflowName(String executionId) {
+        ExecutionRecord record = find(executionId);
+        return record != null ? record.workflowName : null;
+    }
+
+    /**
+     * Move a task within an execution to a state, if the transition table allows it from its current state.
+     * Returns false, leaving the state unchanged, if the transition was rejected or the execution is not
+     * registered or was evicted.
+     */
+    public boolean updateTaskState(String executionId, String taskName, TaskState state) {
+        return transition(executionId, "Task", taskName, state);
+    }
+
+    /**
+     * Move a step within a task of an execution to a state, if the transition table allows it
+     */
+    public boolean updateStepState(String executionId, String taskName, String stepName, TaskState state) {
+        return transition(executionId, "Step", stepKey(taskName, stepName), state);
+    }
+
+    /**
+     * Move a compiled step to a state if the transition table allows it, using its precomputed key
+     */
+    public boolean updateStepState(String executionId, StepPlan step, TaskState state) {
+        return transition(executionId, "Step", step.getKey(), state);
+    }
+
+    /**
+     * Get the current state of a task within an execution
+     */
+    public TaskState getTaskState(String executionId, String taskName) {
+        return lookup(executionId, taskName);
+    }
+
+    /**
+     * Get the current state of a step within an execution
+     */
+    public TaskState getStepState(String executionId, String taskName, String stepName) {
+        return lookup(executionId, stepKey(taskName, stepName));
+    }
+
+    /**
+     * Get the current state of a compiled step within an execution
+     */
+    public TaskState getStepState(String executionId, StepPlan step) {
+        return lookup(executionId, step.getKey());
     }
 
     /**
      * Check if a task has completed successfully
      */
-    public boolean isTaskCompleted(String taskName) {
-        return TaskState.COMPLETED.equals(taskStates.get(taskName));
+    public boolean isTaskCompleted(String executionId, String taskName) {
+        return TaskState.COMPLETED.equals(getTaskState(executionId, taskName));
     }
 
     /**
      * Check if a task has failed
      */
-    public boolean isTaskFailed(String taskName) {
-        TaskState state = taskStates.get(taskName);
-        return TaskState.FAILED.equals(state);
+    public boolean isTaskFailed(String executionId, String taskName) {
+        return TaskState.FAILED.equals(getTaskState(executionId, taskName));
+    }
+
+    /**
+     * Get all task and step states of one execution, keyed by task name or task/step
+     */
+    public Map<String, TaskState> getExecutionStates(String executionId) {
+        ExecutionRecord record = find(executionId);
+        return record != null ? record.toMap() : Collections.emptyMap();
+    }
+
+    /**
+     * IDs of all executions known to the store
+     */
+    public Set<String> getExecutionIds() {
+        Set<String> executionIds = new HashSet<>();
+        for (Shard shard : shards) {
+            executionIds.addAll(shard.records.keySet());
+        }
+        return executionIds;
+    }
+
+    /**
+     * Check if an execution is known to the store
+     */
+    public boolean hasExecution(String executionId) {
+        return find(executionId) != null;
+    }
+
+    /**
+     * Remove all states of one execution
+     */
+    public void clearExecution(String executionId) {
+        if (journal != null) {
+            await(journal.clearExecution(executionId));
+        }
+        remove(executionId);
+        logger.info("[{}] Execution states cleared", executionId);
     }
 
     /**
      * Clear all task states
      */
     public void clearAllStates() {
-        taskStates.clear();
+        if (journal != null) {
+            await(journal.clearAll());
+        }
+        clear();
         logger.info("All task states cleared");
     }
 
     /**
-     * Get all task states
+     * Get all task states grouped by execution ID
+     */
+    public Map<String, Map<String, TaskState>> getAllStates() {
+        Map<String, Map<String, TaskState>> snapshot = new ConcurrentHashMap<>();
+        for (Shard shard : shards) {
+            shard.records.forEach((executionId, record) -> snapshot.put(executionId, record.toMap()));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Add a listener for task and step transitions, starting the dispatcher with the first one
+     */
+    public synchronized void addListener(StateListener listener) {
+        if (dispatcher == null) {
+            dispatcher = new TransitionDispatcher(listenerFlushIntervalMs, listenerBatchSize, listenerQueueCapacity);
+        }
+        dispatcher.addListener(listener);
+    }
+
+    /**
+     * Transitions not delivered to the listeners because their queue was full
+     */
+    public long getDroppedTransitionCount() {
+        TransitionDispatcher current = dispatcher;
+        return current != null ? current.getDroppedCount() : 0;
+    }
+
+    /**
+     * Compare-and-set a task or step to a state in memory, then write it to the journal; the journal
+     * only ever holds transitions that were applied. Rejected transitions are logged and reported to the listeners.
+     * A late update of an unknown or evicted execution is dropped, so it cannot bring back a record that is never evicted.
+     */
+    private boolean transition(String executionId, String kind, String key, TaskState state) {
+        ExecutionRecord record = find(executionId);
+        if (record == null) {
+            logger.debug("[{}] Ignoring {} '{}' state {} of an unknown or evicted execution", executionId, kind, key, state);
+            return false;
+        }
+        int result = record.transition(key, state);
+        TaskState previousState = ExecutionRecord.previousState(result);
+        boolean applied = ExecutionRecord.isApplied(result);
+        if (applied) {
+            if (journal != null) {
+                await(journal.append(executionId, key, state));
+            }
+            logger.debug("[{}] {} '{}' state transition: {} -> {}", executionId, kind, key, previousState, state);
+        } else {
+            logger.warn("[{}] {} '{}' state transition rejected: {} -> {}", executionId, kind, key, previousState, state);
+        }
+
+        TransitionDispatcher current = dispatcher;
+        if (current != null) {
+            current.publish(new StateTransition(executionId, key, previousState, state, applied, System.currentTimeMillis()));
+        }
+        return applied;
+    }
+
+    /**
+     * Wait for a journal write to be forced to storage, unless configured not to or the journal writes behind.
+     * A failed write is logged and the in-memory state is still updated.
+     */
+    private void await(CompletableFuture<Void> write) {
+        if (!awaitSync || journal.isWriteBehind()) {
+            write.exceptionally(error -> {
+                logger.error("Failed to persist state transition", error);
+                return null;
+            });
+            return;
+        }
+        try {
+            write.join();
+        } catch (CompletionException | CancellationException e) {
+            logger.error("Failed to persist state transition", e.getCause() != null ? e.getCause() : e);
+        }
+    }
+
+    /**
+     * Queue a finished execution for eviction once its TTL has passed; executions whose final
+     * status has been persisted get the shorter persisted TTL, and executions submitted with an
+     * idempotency key are kept at least for the idempotency TTL
+     */
+    private void scheduleEviction(ExecutionRecord record, boolean persisted) {
+        long ttlSeconds = persisted ? persistedTtlSeconds : finishedTtlSeconds;
+        if (evictor == null || ttlSeconds < 0) {
+            return;
+        }
+        Shard shard = shardOf(record.executionId);
+        if (record.idempotencyKey != null && idempotencyTtlSeconds > ttlSeconds) {
+            record.expiresAtMs = record.finishedAtMs + idempotencyTtlSeconds * 1000;
+            shard.keyed.add(record);
+            return;
+        }
+        record.expiresAtMs = System.currentTimeMillis() + ttlSeconds * 1000;
+        (persisted ? shard.persisted : shard.finished).add(record);
+    }
+
+    /**
+     * Evict the finished executions whose TTL has passed. Each queue holds one TTL in finishing order,
+     * so only expired records are ever looked at.
+     */
+    private void evictExpired() {
+        long now = System.currentTimeMillis();
+        int evicted = 0;
+        for (Shard shard : shards) {
+            evicted += evictExpired(shard, shard.persisted, now) + evictExpired(shard, shard.finished, now)
+                    + evictExpired(shard, shard.keyed, now);
+        }
+        if (evicted > 0) {
+            logger.debug("Evicted {} finished executions from memory", evicted);
+        }
+    }
+
+    private int evictExpired(Shard shard, Queue<ExecutionRecord> queue, long now) {
+        int evicted = 0;
+        ExecutionRecord record;
+        while ((record = queue.peek()) != null && (record.expiresAtMs <= now || !record.isFinished())) {
+            queue.poll();
+            if (record.isFinished() && shard.records.remove(record.executionId, record)) {
+                removeIdempotencyKey(record);
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    private void recordIdempotencyKey(ExecutionRecord record, String idempotencyKey) {
+        executionByIdempotencyKey.put(idempotencyKey, record.executionId);
+        record.idempotencyKey = idempotencyKey;
+    }
+
+    private void removeIdempotencyKey(ExecutionRecord record) {
+        String idempotencyKey = record.idempotencyKey;
+        if (idempotencyKey != null) {
+            executionByIdempotencyKey.remove(idempotencyKey, record.executionId);
+        }
+    }
+
+    private void remove(String executionId) {
+        ExecutionRecord record = shardOf(executionId).records.remove(executionId);
+        if (record != null) {
+            removeIdempotencyKey(record);
+        }
+    }
+
+    private void clear() {
+        for (Shard shard : shards) {
+            shard.records.clear();
+            shard.persisted.clear();
+            shard.finished.clear();
+            shard.keyed.clear();
+        }
+        executionByIdempotencyKey.clear();
+    }
+
+    private Shard shardOf(String executionId) {
+        int hash = executionId.hashCode();
+        return shards[(hash ^ (hash >>> 16)) & (shards.length - 1)];
+    }
+
+    private ExecutionRecord find(String executionId) {
+        return shardOf(executionId).records.get(executionId);
+    }
+
+    private ExecutionRecord recordFor(String executionId) {
+        ConcurrentMap<String, ExecutionRecord> records = shardOf(executionId).records;
+        ExecutionRecord record = records.get(executionId);
+        return record != null ? record
+                : records.computeIfAbsent(executionId, id -> new ExecutionRecord(id, null, unregisteredKeys));
+    }
+
+    /**
+     * Record of an execution laid out by the keys of its workflow; an execution stored before
+     * it was registered keeps its layout and only learns its workflow name
+     */
+    private ExecutionRecord registered(String executionId, String workflowName) {
+        ExecutionRecord record = shardOf(executionId).records.computeIfAbsent(executionId,
+                id -> new ExecutionRecord(id, workflowName,
+                        keysByWorkflow.computeIfAbsent(workflowName, name -> new StateKeys())));
+        record.workflowName = workflowName;
+        return record;
+    }
+
+    private TaskState lookup(String executionId, String key) {
+        ExecutionRecord record = find(executionId);
+        TaskState state = record != null ? record.get(key) : null;
+        return state != null ? state : TaskState.NOT_STARTED;
+    }
+
+    /**
+     * Key under which the state of a step is stored
+     */
+    public static String stepKey(String taskName, String stepName) {
+        return taskName + STEP_SEPARATOR + stepName;
+    }
+
+    /**
+     * Executions of one shard, with their finished records queued for eviction by TTL
      */
-    public ConcurrentMap<String, TaskState> getAllStates() {
-        return new ConcurrentHashMap<>(taskStates);
+    private static final class Shard {
+        private final ConcurrentMap<String, ExecutionRecord> records = new ConcurrentHashMap<>();
+        private final Queue<ExecutionRecord> persisted = new ConcurrentLinkedQueue<>();
+        private final Queue<ExecutionRecord> finished = new ConcurrentLinkedQueue<>();
+        /** Finished executions held for their idempotency key */
+        private final Queue<ExecutionRecord> keyed = new ConcurrentLinkedQueue<>();
     }
 }
\ No newline at end of file
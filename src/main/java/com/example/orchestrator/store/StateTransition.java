@@ -0,0 +1,65 @@
+package com.example.orchestrator.store;
+
+import com.example.orchestrator.models.dto.TaskState;
+
+/**
+ * A task or step state transition requested from the StateStore, and whether the transition table allowed it
+ */
+public final class StateTransition {
+    private final String executionId;
+    private final String key;
+    private final TaskState from;
+    private final TaskState to;
+    private final boolean applied;
+    private final long timestamp;
+
+    StateTransition(String executionId, String key, TaskState from, TaskState to, boolean applied, long timestamp) {
+        this.executionId = executionId;
+        this.key = key;
+        this.from = from;
+        this.to = to;
+        this.applied = applied;
+        this.timestamp = timestamp;
+    }
+
+    public String getExecutionId() {
+        return executionId;
+    }
+
+    /**
+     * Task name, or task/step for a step
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * State the task or step was in when the transition was requested
+     */
+    public TaskState getFrom() {
+        return from;
+    }
+
+    public TaskState getTo() {
+        return to;
+    }
+
+    /**
+     * False if the transition was rejected and the state left unchanged
+     */
+    public boolean isApplied() {
+        return applied;
+    }
+
+    /**
+     * Wall-clock time of the transition in epoch milliseconds
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return executionId + " " + key + ": " + from + " -> " + to + (applied ? "" : " (rejected)");
+    }
+}
\ No newline at end of file
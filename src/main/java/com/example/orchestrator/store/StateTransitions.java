@@ -0,0 +1,42 @@
+package com.example.orchestrator.store;
+
+import com.example.orchestrator.models.dto.TaskState;
+
+/**
+ * Transitions the StateStore allows between the states of a task or step. A task or step runs once and
+ * is then compensated if it completed, was running when the process died, or was cancelled, since a
+ * cancelled step may have run part of its command. FAILED and COMPENSATED are final. Staying in a state
+ * is always allowed, so resumed and recovered sagas can record it again.
+ */
+public final class StateTransitions {
+
+    /** Bit set of the allowed target states, by source state */
+    private static final int[] ALLOWED = new int[TaskState.values().length];
+
+    static {
+        allow(TaskState.NOT_STARTED, TaskState.RUNNING);
+        allow(TaskState.RUNNING, TaskState.COMPLETED, TaskState.FAILED, TaskState.CANCELLED, TaskState.COMPENSATING);
+        allow(TaskState.COMPLETED, TaskState.COMPENSATING);
+        allow(TaskState.CANCELLED, TaskState.COMPENSATING);
+        allow(TaskState.COMPENSATING, TaskState.COMPENSATED, TaskState.FAILED);
+        for (TaskState state : TaskState.values()) {
+            allow(state, state);
+        }
+    }
+
+    private StateTransitions() {
+    }
+
+    /**
+     * Check if a task or step in one state may move to another
+     */
+    public static boolean isAllowed(TaskState from, TaskState to) {
+        return (ALLOWED[from.ordinal()] & (1 << to.ordinal())) != 0;
+    }
+
+    private static void allow(TaskState from, TaskState... targets) {
+        for (TaskState to : targets) {
+            ALLOWED[from.ordinal()] |= 1 << to.ordinal();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,116 @@
+package com.example.orchestrator.store;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Delivers state transitions to the listeners of a StateStore. Publishing only queues the transition;
+ * a single dispatcher thread hands the queue to the listeners every flush interval, or as soon as
+ * a batch worth has queued up. Transitions beyond the queue capacity are dropped and counted.
+ */
+final class TransitionDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(TransitionDispatcher.class);
+
+    private final List<StateListener> listeners = new CopyOnWriteArrayList<>();
+    private final Queue<StateTransition> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final LongAdder dropped = new LongAdder();
+    private final int batchSize;
+    private final int capacity;
+    private final ScheduledExecutorService dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "state-listener-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    TransitionDispatcher(long flushIntervalMs, int batchSize, int capacity) {
+        this.batchSize = Math.max(1, batchSize);
+        this.capacity = Math.max(this.batchSize, capacity);
+        long interval = Math.max(1, flushIntervalMs);
+        dispatcher.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    void addListener(StateListener listener) {
+        listeners.add(listener);
+    }
+
+    void publish(StateTransition transition) {
+        int queued = pending.incrementAndGet();
+        if (queued > capacity) {
+            pending.decrementAndGet();
+            dropped.increment();
+            return;
+        }
+        queue.add(transition);
+        if (queued >= batchSize && flushRequested.compareAndSet(false, true)) {
+            try {
+                dispatcher.execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    /**
+     * Transitions dropped because the queue was full
+     */
+    long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Deliver the queued transitions and stop the dispatcher
+     */
+    void close() {
+        try {
+            dispatcher.execute(this::flush);
+        } catch (RejectedExecutionException e) {
+            logger.debug("State listener dispatcher already stopped");
+        }
+        dispatcher.shutdown();
+        try {
+            dispatcher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flush() {
+        flushRequested.set(false);
+        while (true) {
+            List<StateTransition> batch = new ArrayList<>(Math.min(batchSize, Math.max(1, pending.get())));
+            StateTransition transition;
+            while (batch.size() < batchSize && (transition = queue.poll()) != null) {
+                batch.add(transition);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            pending.addAndGet(-batch.size());
+            List<StateTransition> delivered = Collections.unmodifiableList(batch);
+            for (StateListener listener : listeners) {
+                try {
+                    listener.onTransitions(delivered);
+                } catch (RuntimeException e) {
+                    logger.error("State listener {} failed on {} transitions", listener.getClass().getSimpleName(),
+                            batch.size(), e);
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,174 @@
+package com.example.orchestrator.trace;
+
+import com.example.orchestrator.context.SagaContext;
+import com.example.orchestrator.plan.StepPlan;
+import com.example.orchestrator.plan.TaskPlan;
+import com.example.orchestrator.trace.TraceEvent.Type;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.VarHandle;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size, lock-free ring buffer of the most recent execution events, recorded by the orchestrators
+ * and the task executor in place of per-step log lines. Recording claims the next slot with one atomic
+ * increment and fills its preallocated fields, so it allocates nothing and formats nothing; once the buffer
+ * is full the oldest events are overwritten. Each slot carries the sequence of the event it holds, set
+ * after its fields are written, so readers copy out only complete events and skip slots overwritten
+ * while they read them. A writer that finds its slot still being written by a writer a full lap ahead
+ * drops its event rather than wait.
+ */
+@Component
+public class ExecutionTrace {
+    private static final long EMPTY = -1;
+    private static final long WRITING = -2;
+
+    private static final AtomicLongFieldUpdater<Slot> STAMP = AtomicLongFieldUpdater.newUpdater(Slot.class, "stamp");
+
+    @Value("${orchestrator.trace.enabled:true}")
+    private boolean enabled;
+
+    @Value("${orchestrator.trace.capacity:65536}")
+    private int capacity;
+
+    private final AtomicLong cursor = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private final long originEpochNanos;
+    private final long originNanoTime;
+    private Slot[] slots;
+    private int mask;
+
+    public ExecutionTrace() {
+        Instant now = Instant.now();
+        this.originNanoTime = System.nanoTime();
+        this.originEpochNanos = now.getEpochSecond() * 1_000_000_000L + now.getNano();
+    }
+
+    @PostConstruct
+    public void init() {
+        int size = Integer.highestOneBit(Math.max(2, Math.min(capacity, 1 << 24)) * 2 - 1);
+        slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+        }
+        mask = size - 1;
+    }
+
+    public void saga(SagaContext context, Type type) {
+        record(context.getExecutionId(), type, -1, -1, -1, context.getWorkflowName());
+    }
+
+    public void task(SagaContext context, TaskPlan task, Type type) {
+        record(context.getExecutionId(), type, task.getIndex(), -1, -1, task.getName());
+    }
+
+    public void step(SagaContext context, StepPlan step, Type type) {
+        record(context.getExecutionId(), type, step.getTaskIndex(), step.getIndex(), -1, step.getKey());
+    }
+
+    public void attempt(SagaContext context, StepPlan step, Type type, int attempt) {
+        record(context.getExecutionId(), type, step.getTaskIndex(), step.getIndex(), attempt, step.getKey());
+    }
+
+    /**
+     * Record an event; the name should be a string the caller holds anyway, such as a plan's step key
+     */
+    public void record(String executionId, Type type, int taskIndex, int stepIndex, int attempt, String name) {
+        if (!enabled) {
+            return;
+        }
+        long sequence = cursor.getAndIncrement();
+        Slot slot = slots[(int) (sequence & mask)];
+        long stamp = slot.stamp;
+        // Still being written a lap ahead, or already holding a later event
+        if (stamp == WRITING || stamp > sequence || !STAMP.compareAndSet(slot, stamp, WRITING)) {
+            dropped.increment();
+            return;
+        }
+        slot.executionId = executionId;
+        slot.type = type;
+        slot.taskIndex = taskIndex;
+        slot.stepIndex = stepIndex;
+        slot.attempt = attempt;
+        slot.name = name;
+        slot.nanoTime = System.nanoTime();
+        // Volatile write publishes the fields above
+        slot.stamp = sequence;
+    }
+
+    /**
+     * Events of one execution still in the buffer, oldest first
+     */
+    public List<TraceEvent> eventsOf(String executionId) {
+        List<TraceEvent> events = new ArrayList<>();
+        if (slots == null) {
+            return events;
+        }
+        long end = cursor.get();
+        for (long sequence = Math.max(0, end - slots.length); sequence < end; sequence++) {
+            Slot slot = slots[(int) (sequence & mask)];
+            if (slot.stamp != sequence) {
+                continue;
+            }
+            String eventExecutionId = slot.executionId;
+            Type type = slot.type;
+            int taskIndex = slot.taskIndex;
+            int stepIndex = slot.stepIndex;
+            int attempt = slot.attempt;
+            String name = slot.name;
+            long nanoTime = slot.nanoTime;
+            VarHandle.loadLoadFence();
+            if (slot.stamp != sequence || !executionId.equals(eventExecutionId)) {
+                // Overwritten while copying, or another execution
+                continue;
+            }
+            events.add(new TraceEvent(sequence, eventExecutionId, type, taskIndex, stepIndex, attempt, name,
+                    nanoTime, toInstant(nanoTime)));
+        }
+        return events;
+    }
+
+    private Instant toInstant(long nanoTime) {
+        long epochNanos = originEpochNanos + (nanoTime - originNanoTime);
+        return Instant.ofEpochSecond(Math.floorDiv(epochNanos, 1_000_000_000L), Math.floorMod(epochNanos, 1_000_000_000L));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Capacity, events recorded since startup and events dropped, for the trace endpoint
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("enabled", enabled);
+        snapshot.put("capacity", slots != null ? slots.length : 0);
+        snapshot.put("recorded", cursor.get());
+        snapshot.put("dropped", dropped.sum());
+        return snapshot;
+    }
+
+    /**
+     * Preallocated event fields, valid while stamp holds the sequence of the event written into them
+     */
+    private static final class Slot {
+        volatile long stamp = EMPTY;
+        private String executionId;
+        private Type type;
+        private int taskIndex;
+        private int stepIndex;
+        private int attempt;
+        private String name;
+        private long nanoTime;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,131 @@
+package com.example.orchestrator.trace;
+
+import java.time.Instant;
+
+/**
+ * One recorded execution event, copied out of the trace buffer
+ */
+public final class TraceEvent {
+
+    public enum Type {
+        SAGA_STARTED,
+        SAGA_RESUMED,
+        SAGA_COMPLETED,
+        SAGA_COMPENSATING,
+        SAGA_COMPENSATED,
+        SAGA_FAILED,
+        TASK_STARTED,
+        TASK_COMPLETED,
+        TASK_FAILED,
+        TASK_CANCELLED,
+        TASK_COMPENSATED,
+        STEP_STARTED,
+        STEP_COMPLETED,
+        STEP_FAILED,
+        STEP_CANCELLED,
+        /** Attempt handed to the step handler */
+        ATTEMPT_STARTED,
+        ATTEMPT_SUCCEEDED,
+        ATTEMPT_FAILED,
+        ATTEMPT_TIMED_OUT,
+        ATTEMPT_CANCELLED,
+        /** Attempt not run: open circuit breaker, full bulkhead or passed deadline */
+        ATTEMPT_REJECTED,
+        RETRY_SCHEDULED,
+        COMPENSATION_STARTED,
+        COMPENSATION_SUCCEEDED,
+        COMPENSATION_FAILED
+    }
+
+    private final long sequence;
+    private final String executionId;
+    private final Type type;
+    private final int taskIndex;
+    private final int stepIndex;
+    private final int attempt;
+    private final String name;
+    private final long nanoTime;
+    private final Instant timestamp;
+
+    TraceEvent(long sequence, String executionId, Type type, int taskIndex, int stepIndex, int attempt, String name,
+               long nanoTime, Instant timestamp) {
+        this.sequence = sequence;
+        this.executionId = executionId;
+        this.type = type;
+        this.taskIndex = taskIndex;
+        this.stepIndex = stepIndex;
+        this.attempt = attempt;
+        this.name = name;
+        this.nanoTime = nanoTime;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * Position of the event among all events recorded since startup
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public String getExecutionId() {
+        return executionId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Index of the task within the workflow, or -1 for saga events
+     */
+    public int getTaskIndex() {
+        return taskIndex;
+    }
+
+    /**
+     * Index of the step within its task, or -1 for saga and task events
+     */
+    public int getStepIndex() {
+        return stepIndex;
+    }
+
+    /**
+     * Attempt number of attempt and retry events, 0 for the first attempt; -1 otherwise
+     */
+    public int getAttempt() {
+        return attempt;
+    }
+
+    /**
+     * Workflow name for saga events, task name for task events, task/step for step events
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * System.nanoTime() when the event was recorded
+     */
+    public long getNanoTime() {
+        return nanoTime;
+    }
+
+    /**
+     * Wall-clock time of the event, derived from its nanoTime
+     */
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "TraceEvent{" +
+                "sequence=" + sequence +
+                ", executionId='" + executionId + '\'' +
+                ", type=" + type +
+                ", name='" + name + '\'' +
+                ", attempt=" + attempt +
+                ", nanoTime=" + nanoTime +
+                '}';
+    }
+}
\ No newline at end of file
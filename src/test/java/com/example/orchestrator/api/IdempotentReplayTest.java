@@ -0,0 +1,127 @@
+package com.example.orchestrator.api;
+
+import com.example.orchestrator.context.SagaContext;
+import com.example.orchestrator.models.dto.TaskState;
+import com.example.orchestrator.services.ExecutionService;
+import com.example.orchestrator.services.IdempotencyService;
+import com.example.orchestrator.store.StateStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Replays of idempotent submissions whose execution has finished and been evicted
+ */
+class IdempotentReplayTest {
+
+    private static final String KEY = "order-1234";
+
+    private StateStore stateStore;
+
+    @AfterEach
+    void closeStore() {
+        if (stateStore != null) {
+            stateStore.close();
+        }
+    }
+
+    @Test
+    void replaysFinishedExecutionAfterFinishedTtlWhileIdempotencyTtlRuns() throws Exception {
+        stateStore = stateStore(3600);
+        IdempotencyService idempotencyService = idempotencyService(stateStore, 0);
+        ExecutionService executionService = mock(ExecutionService.class);
+        OrchestrationController controller = controller(stateStore, idempotencyService, executionService);
+
+        finish(idempotencyService, "execution-1");
+        Thread.sleep(200);
+
+        assertTrue(stateStore.hasExecution("execution-1"));
+        ResponseEntity<Map<String, Object>> response = controller.submitExecution("workflow.yml", null, KEY);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("execution-1", response.getBody().get("executionId"));
+        assertEquals(TaskState.COMPLETED, response.getBody().get("status"));
+        assertEquals(true, response.getBody().get("duplicate"));
+        verify(executionService, never()).submit(any(SagaContext.class), any());
+    }
+
+    @Test
+    void startsNewExecutionOnceKeyedExecutionIsEvicted() throws Exception {
+        stateStore = stateStore(0);
+        IdempotencyService idempotencyService = idempotencyService(stateStore, 3600);
+
+        finish(idempotencyService, "execution-1");
+        Thread.sleep(200);
+
+        assertFalse(stateStore.hasExecution("execution-1"));
+        assertEquals(Optional.empty(), idempotencyService.claim(KEY, "execution-2"));
+        assertEquals("execution-2", stateStore.findExecutionByIdempotencyKey(KEY));
+    }
+
+    @Test
+    void answersGoneForDuplicateOfUnknownExecution() {
+        stateStore = stateStore(3600);
+        IdempotencyService idempotencyService = mock(IdempotencyService.class);
+        when(idempotencyService.claim(anyString(), anyString())).thenReturn(Optional.of("execution-1"));
+        ExecutionService executionService = mock(ExecutionService.class);
+        OrchestrationController controller = controller(stateStore, idempotencyService, executionService);
+
+        ResponseEntity<Map<String, Object>> response = controller.submitExecution("workflow.yml", null, KEY);
+
+        assertEquals(HttpStatus.GONE, response.getStatusCode());
+        assertEquals("execution-1", response.getBody().get("executionId"));
+        assertEquals(true, response.getBody().get("duplicate"));
+        verify(executionService, never()).submit(any(SagaContext.class), any());
+    }
+
+    private void finish(IdempotencyService idempotencyService, String executionId) {
+        assertEquals(Optional.empty(), idempotencyService.claim(KEY, executionId));
+        stateStore.registerExecution(executionId, "workflow.yml");
+        stateStore.updateExecutionStatus(executionId, TaskState.COMPLETED);
+    }
+
+    private static StateStore stateStore(long idempotencyTtlSeconds) {
+        StateStore stateStore = new StateStore();
+        ReflectionTestUtils.setField(stateStore, "finishedTtlSeconds", 0L);
+        ReflectionTestUtils.setField(stateStore, "persistedTtlSeconds", 0L);
+        ReflectionTestUtils.setField(stateStore, "idempotencyTtlSeconds", idempotencyTtlSeconds);
+        ReflectionTestUtils.setField(stateStore, "evictionIntervalMs", 10L);
+        ReflectionTestUtils.setField(stateStore, "listenerFlushIntervalMs", 50L);
+        ReflectionTestUtils.setField(stateStore, "listenerBatchSize", 1000);
+        ReflectionTestUtils.setField(stateStore, "listenerQueueCapacity", 1000);
+        stateStore.init();
+        return stateStore;
+    }
+
+    private static IdempotencyService idempotencyService(StateStore stateStore, long ttlSeconds) {
+        IdempotencyService idempotencyService = new IdempotencyService();
+        ReflectionTestUtils.setField(idempotencyService, "stateStore", stateStore);
+        ReflectionTestUtils.setField(idempotencyService, "ttlSeconds", ttlSeconds);
+        ReflectionTestUtils.setField(idempotencyService, "maxEntries", 1000);
+        return idempotencyService;
+    }
+
+    private static OrchestrationController controller(StateStore stateStore, IdempotencyService idempotencyService,
+                                                      ExecutionService executionService) {
+        OrchestrationController controller = new OrchestrationController();
+        ReflectionTestUtils.setField(controller, "stateStore", stateStore);
+        ReflectionTestUtils.setField(controller, "idempotencyService", idempotencyService);
+        ReflectionTestUtils.setField(controller, "executionService", executionService);
+        return controller;
+    }
+}
\ No newline at end of file
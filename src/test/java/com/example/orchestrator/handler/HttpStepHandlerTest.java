@@ -0,0 +1,193 @@
+package com.example.orchestrator.handler;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * HttpStepHandler against a JDK HttpServer on an ephemeral port
+ */
+class HttpStepHandlerTest {
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private HttpStepHandler handler;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        handler = new HttpStepHandler();
+        ReflectionTestUtils.setField(handler, "enabled", true);
+        ReflectionTestUtils.setField(handler, "defaultBaseUrl", "http://localhost:" + server.getAddress().getPort());
+        ReflectionTestUtils.setField(handler, "targetBaseUrls", "");
+        ReflectionTestUtils.setField(handler, "connectTimeoutMs", 2000L);
+        ReflectionTestUtils.setField(handler, "requestTimeoutMs", 5000L);
+        handler.init();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void sendsStepAsJsonRequestAndSucceedsOn2xx() throws Exception {
+        CompletableFuture<RecordedRequest> received = new CompletableFuture<>();
+        server.createContext("/payment", exchange -> {
+            received.complete(new RecordedRequest(exchange));
+            respond(exchange, 201);
+        });
+
+        StepRequest request = new StepRequest("execution-1", "Order/Pay", "POST /payment", "{\"amount\":10}", 0, false);
+        assertTrue(handler.supports(request.getCommand()));
+        assertTrue(handler.execute(request).get(5, TimeUnit.SECONDS));
+
+        RecordedRequest recorded = received.get(5, TimeUnit.SECONDS);
+        assertEquals("POST", recorded.method);
+        assertEquals("/payment", recorded.path);
+        assertEquals("execution-1", recorded.executionId);
+        assertEquals("Order/Pay", recorded.step);
+        assertEquals("application/json", recorded.contentType);
+        assertEquals("{\"amount\":10}", recorded.body);
+    }
+
+    @Test
+    void sendsGetWithoutBody() throws Exception {
+        CompletableFuture<RecordedRequest> received = new CompletableFuture<>();
+        server.createContext("/status", exchange -> {
+            received.complete(new RecordedRequest(exchange));
+            respond(exchange, 200);
+        });
+
+        assertTrue(handler.execute(new StepRequest("execution-1", "Order/Check", "GET /status", null, 0, false))
+                .get(5, TimeUnit.SECONDS));
+
+        RecordedRequest recorded = received.get(5, TimeUnit.SECONDS);
+        assertEquals("GET", recorded.method);
+        assertEquals("", recorded.body);
+        assertNull(recorded.contentType);
+    }
+
+    @Test
+    void failsOnNon2xx() throws Exception {
+        server.createContext("/inventory", exchange -> respond(exchange, 500));
+        server.createContext("/missing", exchange -> respond(exchange, 404));
+
+        assertFalse(handler.execute(new StepRequest("execution-1", "Order/Reserve", "POST /inventory", "{}", 0, false))
+                .get(5, TimeUnit.SECONDS));
+        assertFalse(handler.execute(new StepRequest("execution-1", "Order/Lookup", "GET /missing", null, 0, false))
+                .get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void failsWhenResponseExceedsRequestTimeout() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        server.createContext("/slow", exchange -> {
+            await(release);
+            respond(exchange, 200);
+        });
+        ReflectionTestUtils.setField(handler, "requestTimeoutMs", 200L);
+
+        long started = System.nanoTime();
+        try {
+            assertFalse(handler.execute(new StepRequest("execution-1", "Order/Slow", "POST /slow", "{}", 0, false))
+                    .get(5, TimeUnit.SECONDS));
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) < 4000);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void cancellingTheResultAbortsTheInFlightRequest() throws Exception {
+        CountDownLatch arrived = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        CompletableFuture<Boolean> responseAborted = new CompletableFuture<>();
+        server.createContext("/shipment", exchange -> {
+            arrived.countDown();
+            await(cancelled);
+            // Keep streaming until the aborted connection makes a write fail
+            byte[] chunk = new byte[64 * 1024];
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream body = exchange.getResponseBody()) {
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                while (System.nanoTime() < deadline) {
+                    body.write(chunk);
+                    body.flush();
+                }
+                responseAborted.complete(false);
+            } catch (IOException e) {
+                responseAborted.complete(true);
+            }
+        });
+
+        CompletableFuture<Boolean> result =
+                handler.execute(new StepRequest("execution-1", "Order/Ship", "POST /shipment", "{}", 0, false));
+        assertTrue(arrived.await(5, TimeUnit.SECONDS));
+
+        assertTrue(result.cancel(true));
+        cancelled.countDown();
+
+        assertTrue(result.isCancelled());
+        assertTrue(responseAborted.get(10, TimeUnit.SECONDS));
+    }
+
+    private static void respond(HttpExchange exchange, int status) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        exchange.sendResponseHeaders(status, -1);
+        exchange.close();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * What the server received
+     */
+    private static final class RecordedRequest {
+        private final String method;
+        private final String path;
+        private final String executionId;
+        private final String step;
+        private final String contentType;
+        private final String body;
+
+        RecordedRequest(HttpExchange exchange) throws IOException {
+            this.method = exchange.getRequestMethod();
+            this.path = exchange.getRequestURI().getPath();
+            this.executionId = exchange.getRequestHeaders().getFirst("X-Saga-Execution-Id");
+            this.step = exchange.getRequestHeaders().getFirst("X-Saga-Step");
+            this.contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+            this.body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
\ No newline at end of file